@@ -17,23 +17,49 @@
 
 package org.eomasters.gui;
 
+import java.awt.AlphaComposite;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.event.HierarchyEvent;
 import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.JPanel;
-import javax.swing.Timer;
+import org.eomasters.utils.GifFrameSource;
+import org.eomasters.utils.ImageUtils;
 
 public class AnimatedImage extends JPanel {
 
-  private final Image[] frames;
+  private static final Logger LOG = Logger.getLogger("org.eomasters");
+
+  private final IntFunction<Image> frames;
+  private final int numFrames;
+  private final IntUnaryOperator frameDelays;
   private final float fWidth;
   private final float fHeight;
   private int frameIdx;
   private double scaling;
   private int delay;
-  private final Timer timer;
+  private int currentDelay;
+  private long nextFrameTime;
+  private volatile boolean running;
+  private boolean prescaling;
+  private Image[] scaledFrames;
+  private int scaledWidth;
+  private int scaledHeight;
+  private GraphicsConfiguration scaledConfiguration;
+  private Image lastFrame;
 
   public AnimatedImage(Image[] frames) {
     this(frames, 1.0f);
@@ -47,24 +73,44 @@ public class AnimatedImage extends JPanel {
    *                component, all other values are multiplied with the original size
    */
   public AnimatedImage(Image[] frames, double scaling) {
-    if (frames.length == 0) {
-      throw new IllegalArgumentException("frames must not be empty");
-    }
+    this(i -> frames[i], validateFrames(frames), null, frames[0].getWidth(null), frames[0].getHeight(null), scaling);
+  }
+
+  /**
+   * Creates a new animated image which decodes the frames on demand from the given source. The frames are shown as
+   * long as specified by their delays. The animation is centered in the component.
+   *
+   * @param frameSource the source of the frames
+   * @param scaling     the scaling applied to the frames. A value of <=0 means the images are scaled to the size of
+   *                    the component, all other values are multiplied with the original size
+   */
+  public AnimatedImage(GifFrameSource frameSource, double scaling) {
+    this(decodingFrames(frameSource), frameSource.getFrameCount(), i -> {
+      try {
+        return frameSource.getDelay(i);
+      } catch (IOException e) {
+        return GifFrameSource.DEFAULT_DELAY_MILLIS;
+      }
+    }, frameSource.getWidth(), frameSource.getHeight(), scaling);
+  }
+
+  private AnimatedImage(IntFunction<Image> frames, int numFrames, IntUnaryOperator frameDelays, int width,
+      int height, double scaling) {
     this.frames = frames;
-    fWidth = frames[0].getWidth(null);
-    fHeight = frames[0].getHeight(null);
+    this.numFrames = numFrames;
+    this.frameDelays = frameDelays;
+    fWidth = width;
+    fHeight = height;
     frameIdx = 0;
     this.scaling = scaling;
     delay = 1000 / 10;
+    currentDelay = delay;
 
-    for (Image frame : frames) {
-      if (frame.getWidth(null) != fWidth || frame.getHeight(null) != fHeight) {
-        throw new IllegalArgumentException("frames must all have the same size");
+    // the animation is paused while the component is not showing
+    addHierarchyListener(e -> {
+      if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+        updateClockRegistration();
       }
-    }
-
-    timer = new Timer(delay, e -> {
-      repaint();
     });
 
     Dimension size = new Dimension(Math.round(fWidth), Math.round(fHeight));
@@ -72,6 +118,33 @@ public class AnimatedImage extends JPanel {
     setSize(size);
   }
 
+  // a frame which can not be decoded is skipped, so the last good frame stays visible, and the error is logged once
+  private static IntFunction<Image> decodingFrames(GifFrameSource frameSource) {
+    AtomicBoolean errorLogged = new AtomicBoolean();
+    return i -> {
+      try {
+        return frameSource.getFrame(i);
+      } catch (IOException e) {
+        if (errorLogged.compareAndSet(false, true)) {
+          LOG.log(Level.WARNING, "Not able to decode frame " + i + " of animation", e);
+        }
+        return null;
+      }
+    };
+  }
+
+  private static int validateFrames(Image[] frames) {
+    if (frames.length == 0) {
+      throw new IllegalArgumentException("frames must not be empty");
+    }
+    for (Image frame : frames) {
+      if (frame.getWidth(null) != frames[0].getWidth(null) || frame.getHeight(null) != frames[0].getHeight(null)) {
+        throw new IllegalArgumentException("frames must all have the same size");
+      }
+    }
+    return frames.length;
+  }
+
   protected int getFrameIdx() {
     int index = frameIdx % getNumFrames();
     frameIdx++;
@@ -79,24 +152,73 @@ public class AnimatedImage extends JPanel {
   }
 
   protected int getNumFrames() {
-    return frames.length;
+    return numFrames;
   }
 
   public void setScaling(float scaling) {
     this.scaling = scaling;
+    flushScaledFrames();
+  }
+
+  /**
+   * Enables pre-scaling of the frames. The frames are scaled once for the current size of the component into images
+   * optimized for the screen and are painted without any transformation afterwards. This reduces the CPU needed per
+   * frame, especially if many animations are shown, at the cost of keeping the scaled frames in memory. The scaled
+   * frames are re-created when the size of the component or the screen changes.
+   *
+   * @param prescaling {@code true} to enable pre-scaling
+   */
+  public void setPrescaling(boolean prescaling) {
+    this.prescaling = prescaling;
+    flushScaledFrames();
+  }
+
+  public boolean isPrescaling() {
+    return prescaling;
   }
 
   public void setDelay(int delay) {
     this.delay = delay;
   }
 
+  /**
+   * Starts the animation. All animations are driven by one shared clock on the event dispatch thread, and an
+   * animation only takes part while it is showing.
+   */
   public void start() {
-    timer.setDelay(delay);
-    timer.start();
+    currentDelay = delay;
+    running = true;
+    updateClockRegistration();
   }
 
   public void stop() {
-    timer.stop();
+    running = false;
+    updateClockRegistration();
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Called by the shared animation clock while the animation is running and showing. Repaints the component when the
+   * current frame has been shown for its delay.
+   *
+   * @param now the current time in milliseconds
+   */
+  protected void tick(long now) {
+    if (now >= nextFrameTime) {
+      nextFrameTime = now + currentDelay;
+      repaint();
+    }
+  }
+
+  private void updateClockRegistration() {
+    if (running && isShowing()) {
+      AnimationClock.register(this);
+    } else {
+      AnimationClock.unregister(this);
+    }
   }
 
   @Override
@@ -119,23 +241,112 @@ public class AnimatedImage extends JPanel {
   }
 
   private void paintImage(Graphics2D g) {
-    g.drawImage(frames[getFrameIdx()], createTransform(), null);
+    int index = getFrameIdx();
+    double effectiveScaling = getEffectiveScaling();
+    double x = (getWidth() - (fWidth * effectiveScaling)) / 2;
+    double y = (getHeight() - (fHeight * effectiveScaling)) / 2;
+    if (prescaling) {
+      paintPrescaledFrame(g, index, effectiveScaling, x, y);
+    } else {
+      Image frame = getFrame(index);
+      if (frame != null) {
+        AffineTransform transform = AffineTransform.getTranslateInstance(x, y);
+        transform.scale(effectiveScaling, effectiveScaling);
+        g.drawImage(frame, transform, null);
+      }
+    }
+    if (frameDelays != null) {
+      // the next frame is requested when this one has been shown for its delay
+      currentDelay = frameDelays.applyAsInt(index);
+    }
   }
 
-  private AffineTransform createTransform() {
-    float cWidth = getWidth();
-    float cHeight = getHeight();
-    double effectiveScaling;
+  private void paintPrescaledFrame(Graphics2D g, int index, double effectiveScaling, double x, double y) {
+    // the frames are scaled to device pixels, so they are not scaled again on HiDPI screens
+    double deviceScaling = g.getTransform().getScaleX();
+    int width = Math.max(1, (int) Math.round(fWidth * effectiveScaling * deviceScaling));
+    int height = Math.max(1, (int) Math.round(fHeight * effectiveScaling * deviceScaling));
+    GraphicsConfiguration configuration = getGraphicsConfiguration();
+    if (scaledFrames == null || scaledWidth != width || scaledHeight != height
+        || scaledConfiguration != configuration) {
+      flushScaledFrames();
+      scaledFrames = new Image[numFrames];
+      scaledWidth = width;
+      scaledHeight = height;
+      scaledConfiguration = configuration;
+    }
+    int dx = (int) Math.round(x);
+    int dy = (int) Math.round(y);
+    int dWidth = (int) Math.round(fWidth * effectiveScaling);
+    int dHeight = (int) Math.round(fHeight * effectiveScaling);
+    if (configuration == null) {
+      if (scaledFrames[index] == null) {
+        BufferedImage image = ImageUtils.createCompatibleImage(width, height);
+        renderScaledFrame(image, index);
+        scaledFrames[index] = image;
+      }
+      g.drawImage(scaledFrames[index], dx, dy, dWidth, dHeight, null);
+      return;
+    }
+    // volatile images can lose their content, e.g. if the screen configuration changes, and need to be validated
+    for (int attempt = 0; attempt < 3; attempt++) {
+      VolatileImage image = (VolatileImage) scaledFrames[index];
+      int state = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(configuration);
+      if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+        if (image != null) {
+          image.flush();
+        }
+        image = configuration.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
+        scaledFrames[index] = image;
+        renderScaledFrame(image, index);
+      } else if (state == VolatileImage.IMAGE_RESTORED) {
+        renderScaledFrame(image, index);
+      }
+      g.drawImage(image, dx, dy, dWidth, dHeight, null);
+      if (!image.contentsLost()) {
+        return;
+      }
+    }
+  }
+
+  // releases the memory of the scaled frames right away, for volatile images this is video memory
+  private void flushScaledFrames() {
+    if (scaledFrames != null) {
+      for (Image frame : scaledFrames) {
+        if (frame != null) {
+          frame.flush();
+        }
+      }
+      scaledFrames = null;
+    }
+  }
+
+  private void renderScaledFrame(Image target, int index) {
+    Image frame = getFrame(index);
+    if (frame == null) {
+      return;
+    }
+    Graphics2D graphics = (Graphics2D) target.getGraphics();
+    graphics.setComposite(AlphaComposite.Src);
+    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+    graphics.drawImage(frame, 0, 0, target.getWidth(null), target.getHeight(null), null);
+    graphics.dispose();
+  }
+
+  private Image getFrame(int index) {
+    Image frame = frames.apply(index);
+    if (frame != null) {
+      lastFrame = frame;
+    }
+    return lastFrame;
+  }
+
+  private double getEffectiveScaling() {
     if (scaling <= 0) {
-      effectiveScaling = Math.min(cWidth / fWidth, cHeight / fHeight);
-    } else {
-      effectiveScaling = scaling;
+      return Math.min(getWidth() / fWidth, getHeight() / fHeight);
     }
-    double x = (cWidth - (fWidth * effectiveScaling)) / 2;
-    double y = (cHeight - (fHeight * effectiveScaling)) / 2;
-    AffineTransform transform = AffineTransform.getTranslateInstance(x, y);
-    transform.scale(effectiveScaling, effectiveScaling);
-    return transform;
+    return scaling;
   }
 
 }
@@ -0,0 +1,62 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.gui;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.Timer;
+
+/**
+ * A single clock driving all running {@link AnimatedImage}s. It ticks on the event dispatch thread, so no thread is
+ * needed per animation, and it is stopped while no animation is registered. Animations are only registered while they
+ * are running and showing on the screen.
+ */
+final class AnimationClock {
+
+  static final int TICK_MILLIS = 20;
+
+  private static final List<AnimatedImage> animations = new CopyOnWriteArrayList<>();
+  private static final Timer timer = new Timer(TICK_MILLIS, e -> tick());
+
+  private AnimationClock() {
+    // prevent instantiation
+  }
+
+  static synchronized void register(AnimatedImage animation) {
+    if (!animations.contains(animation)) {
+      animations.add(animation);
+    }
+    if (!timer.isRunning()) {
+      timer.start();
+    }
+  }
+
+  static synchronized void unregister(AnimatedImage animation) {
+    animations.remove(animation);
+    if (animations.isEmpty()) {
+      timer.stop();
+    }
+  }
+
+  private static void tick() {
+    long now = System.currentTimeMillis();
+    for (AnimatedImage animation : animations) {
+      animation.tick(now);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses tabular text as it is put into the clipboard by spreadsheet applications. The text is scanned once, character
+ * by character. Fields are separated by tabs or commas and may be quoted with double quotes, in which case they can
+ * contain delimiters, line breaks and escaped quotes ({@code ""}).
+ */
+final class ClipboardTableParser {
+
+  private static final char QUOTE = '"';
+
+  private ClipboardTableParser() {
+    // prevent instantiation
+  }
+
+  /**
+   * Detects the delimiter of the given text. Spreadsheet applications put tab separated text into the clipboard, so a
+   * text is only taken as comma separated if its first line contains a comma but no tab outside of quotes, and either
+   * comma separated text is accepted, or a quoted field is directly delimited by a comma. A single cell like
+   * {@code Hello, world} or {@code 1,5} is therefore not split by default.
+   *
+   * @param text       the text to inspect
+   * @param csvEnabled whether comma separated text without quoted fields is accepted
+   * @return the delimiter, tab if the text is not comma separated
+   */
+  static char detectDelimiter(String text, boolean csvEnabled) {
+    boolean quoted = false;
+    boolean foundComma = false;
+    boolean quotedCsvField = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == QUOTE) {
+        int neighbour = quoted ? i + 1 : i - 1;
+        if (neighbour >= 0 && neighbour < text.length() && text.charAt(neighbour) == ',') {
+          quotedCsvField = true;
+        }
+        quoted = !quoted;
+      } else if (!quoted) {
+        if (c == '\t') {
+          return '\t';
+        } else if (c == ',') {
+          foundComma = true;
+        } else if (c == '\n' || c == '\r') {
+          break;
+        }
+      }
+    }
+    return foundComma && (csvEnabled || quotedCsvField) ? ',' : '\t';
+  }
+
+  /**
+   * Counts the lines of the text without parsing it. This is an upper bound of the number of rows, because quoted
+   * fields may contain line breaks.
+   *
+   * @param text the text
+   * @return the number of lines
+   */
+  static int countLines(String text) {
+    int lines = 1;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Parses the text into rows of fields. Line breaks can be LF, CR or CRLF, a trailing line break does not produce an
+   * empty row.
+   *
+   * @param text      the text to parse
+   * @param delimiter the field delimiter
+   * @return the rows, which may differ in their number of fields
+   */
+  static List<String[]> parse(String text, char delimiter) {
+    List<String[]> rows = new ArrayList<>();
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean rowStarted = false;
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (quoted) {
+        if (c != QUOTE) {
+          field.append(c);
+        } else if (i + 1 < length && text.charAt(i + 1) == QUOTE) {
+          field.append(QUOTE);
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == QUOTE && field.length() == 0) {
+        quoted = true;
+        rowStarted = true;
+      } else if (c == delimiter) {
+        fields.add(field.toString());
+        field.setLength(0);
+        rowStarted = true;
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+          i++;
+        }
+        fields.add(field.toString());
+        field.setLength(0);
+        rows.add(fields.toArray(new String[0]));
+        fields.clear();
+        rowStarted = false;
+      } else {
+        field.append(c);
+        rowStarted = true;
+      }
+    }
+    if (rowStarted) {
+      fields.add(field.toString());
+      rows.add(fields.toArray(new String[0]));
+    }
+    return rows;
+  }
+
+  /**
+   * Converts the text of a cell to the given column class. Integer, Long, Float and Double columns are parsed like in
+   * the {@link NumberCellEditor}, all other columns keep the text. A blank cell of a number column becomes
+   * {@code null}.
+   *
+   * @param text        the text of the cell
+   * @param columnClass the class of the column
+   * @return the converted value
+   * @throws NumberFormatException if the text is not a valid number of the column class
+   */
+  static Object convert(String text, Class<?> columnClass) {
+    if (text.isBlank() && Number.class.isAssignableFrom(columnClass)) {
+      return null;
+    }
+    switch (columnClass.getSimpleName()) {
+      case "Integer":
+        return Integer.parseInt(text.trim());
+      case "Long":
+        return Long.parseLong(text.trim());
+      case "Float":
+        return Float.parseFloat(text.trim());
+      case "Double":
+        return Double.parseDouble(text.trim());
+      default:
+        return text;
+    }
+  }
+}
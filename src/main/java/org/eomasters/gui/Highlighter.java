@@ -19,13 +19,11 @@ package org.eomasters.gui;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.MatteBorder;
@@ -57,11 +55,12 @@ public class Highlighter {
     getActiveHighlighter(component).ifPresent(Highlighter::clear);
   }
 
-  private static final ScheduledExecutorService EXECUTOR_SERVICE = Executors.newScheduledThreadPool(10);
-  private static final Map<JComponent, Highlighter> HIGHLIGHTERS = new HashMap<>();
+  private static final Map<JComponent, Highlighter> HIGHLIGHTERS = new ConcurrentHashMap<>();
 
-  private final Border origBorder;
   private final JComponent component;
+  private Border origBorder;
+  private boolean highlighted;
+  private SwingDelayedTasks.DelayedTask expiration;
 
   private Color highlightColor;
   private int highlightMargin;
@@ -79,7 +78,6 @@ public class Highlighter {
       throw new IllegalArgumentException("Component cannot be null");
     }
     this.component = component;
-    origBorder = component.getBorder();
     highlightColor = Color.blue.darker();
     highlightMargin = 2;
     duration = 2.0;
@@ -118,7 +116,7 @@ public class Highlighter {
    * @see #setHighlightColor
    */
   public void highlight() {
-    highlightComponent(null);
+    runOnEventDispatchThread(() -> highlightComponent(null));
   }
 
   /**
@@ -128,22 +126,44 @@ public class Highlighter {
    * @param infoMessage the message, can be null
    */
   public void highlight(String infoMessage) {
-    highlightComponent(infoMessage);
-    HIGHLIGHTERS.put(component, this);
-    EXECUTOR_SERVICE.schedule(this::clear, (long) (duration * 1000), TimeUnit.MILLISECONDS);
+    runOnEventDispatchThread(() -> {
+      // a previous highlighting is cleared first, so its border is not taken as the original one
+      Highlighter previous = HIGHLIGHTERS.put(component, this);
+      if (previous != null && previous != this) {
+        previous.clear();
+      }
+      // highlighting again replaces the expiration and the message of this highlighter
+      cancelExpiration();
+      hidePopup();
+      highlightComponent(infoMessage);
+      expiration = SwingDelayedTasks.schedule(this::clear, (long) (duration * 1000));
+    });
   }
 
   /**
-   * Clears the highlighting of the associated component.
+   * Clears the highlighting of the associated component. Can be called from any thread.
    */
   public void clear() {
-    if (component != null) {
+    runOnEventDispatchThread(() -> {
+      cancelExpiration();
       clearComponent();
-      HIGHLIGHTERS.remove(component);
+      HIGHLIGHTERS.remove(component, this);
+    });
+  }
+
+  private static void runOnEventDispatchThread(Runnable runnable) {
+    if (SwingUtilities.isEventDispatchThread()) {
+      runnable.run();
+    } else {
+      SwingUtilities.invokeLater(runnable);
     }
   }
 
   private void highlightComponent(String infoMessage) {
+    if (!highlighted) {
+      origBorder = component.getBorder();
+      highlighted = true;
+    }
     component.setBorder(createHighlightBorder(highlightMargin, highlightColor));
     if (infoMessage != null) {
       popupComponent = showPopup(infoMessage);
@@ -155,9 +175,24 @@ public class Highlighter {
   }
 
   private void clearComponent() {
-    component.setBorder(origBorder);
+    if (highlighted) {
+      component.setBorder(origBorder);
+      highlighted = false;
+    }
+    hidePopup();
+  }
+
+  private void cancelExpiration() {
+    if (expiration != null) {
+      expiration.cancel();
+      expiration = null;
+    }
+  }
+
+  private void hidePopup() {
     if (popupComponent != null) {
       popupComponent.hidePopup();
+      popupComponent = null;
     }
   }
 
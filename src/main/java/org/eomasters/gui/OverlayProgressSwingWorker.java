@@ -24,6 +24,7 @@ import java.awt.Cursor;
 import java.awt.Dialog;
 import java.awt.Dialog.ModalityType;
 import java.awt.Frame;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 import java.awt.Rectangle;
 import java.awt.event.ComponentEvent;
@@ -33,9 +34,6 @@ import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Objects;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JComponent;
@@ -46,10 +44,11 @@ import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.WindowConstants;
 import org.eomasters.icons.Icon;
 import org.eomasters.icons.Icons;
-import org.eomasters.utils.ImageUtils;
+import org.eomasters.utils.AnimationFrameCache;
 import org.eomasters.utils.ProgressManager;
 import org.eomasters.utils.ProgressTask;
 
@@ -125,9 +124,11 @@ public class OverlayProgressSwingWorker extends SwingWorker<Void, Void> {
       }
       AnimatedImage image;
       try {
-        Image[] frames = ImageUtils.loadFramesFromGif(
-            ImageIO.createImageInputStream(Objects.requireNonNull(resource).openStream()));
-        image = new ProgressTaskImage(task, frames, 0.2);
+        // the frames are shared by all overlays and only decoded and scaled when shown the first time. They are
+        // cached in device pixels and scaled back when painted, so they stay sharp on HiDPI screens
+        double deviceScale = getDeviceScale(component);
+        Image[] frames = AnimationFrameCache.getFrames(Objects.requireNonNull(resource), 0.2 * deviceScale);
+        image = new ProgressTaskImage(task, frames, 1.0 / deviceScale);
         image.setBackground(new Color(0, 0, 0, 89));
         image.setOpaque(false);
         image.start();
@@ -156,6 +157,11 @@ public class OverlayProgressSwingWorker extends SwingWorker<Void, Void> {
     }
   }
 
+  private static double getDeviceScale(JComponent component) {
+    GraphicsConfiguration configuration = component.getGraphicsConfiguration();
+    return configuration != null ? configuration.getDefaultTransform().getScaleX() : 1.0;
+  }
+
   public void waitFor() {
     JDialog dialog = new JDialog((Dialog) null);
     dialog.setUndecorated(true);
@@ -170,29 +176,36 @@ public class OverlayProgressSwingWorker extends SwingWorker<Void, Void> {
 
   @Override
   protected Void doInBackground() {
+    if (task.isCancelled()) {
+      return null;
+    }
+    // cancelling the task interrupts the worker thread
+    task.whenCancelled(() -> cancel(true));
     if (component.isShowing()) {
       sizeListener = new SyncComponentSizeListener();
       component.addComponentListener(sizeListener);
       // start delayed show
-      ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-      scheduler.schedule(this::showPopup, SHOW_DELAY, java.util.concurrent.TimeUnit.MILLISECONDS);
+      // a one-shot Swing timer, so no thread is needed per overlay
+      Timer showTimer = new Timer(SHOW_DELAY, e -> showPopup());
+      showTimer.setRepeats(false);
+      showTimer.start();
     }
     task.getRunnable().run();
     return null;
   }
 
   private void showPopup() {
-    if (task.getProgress() < (SHOW_DELAY * 100f) / MAX_NOT_SHOWING_PROGRESS) {
-      SwingUtilities.invokeLater(() -> {
-        if (!isDone()) {
-          popupComponent.show(component, 0, 0);
-        }
-      });
+    // called by the timer on the event dispatch thread
+    if (task.getProgress() < (SHOW_DELAY * 100f) / MAX_NOT_SHOWING_PROGRESS && !isDone()) {
+      popupComponent.show(component, 0, 0);
     }
   }
 
   @Override
   protected void done() {
+    if (isCancelled()) {
+      task.cancel();
+    }
     component.removeComponentListener(sizeListener);
     if (popupComponent != null) {
       popupComponent.setVisible(false);
@@ -18,14 +18,15 @@
 package org.eomasters.gui;
 
 import java.awt.Image;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import org.eomasters.utils.ProgressManager;
 import org.eomasters.utils.ProgressTask;
 
 public class ProgressTaskImage extends AnimatedImage {
 
+  private static final int PROGRESS_UPDATE_MILLIS = 50;
+
   private final ProgressTask task;
+  private long nextProgressUpdate;
   private int currentFrameIdx;
   private int targetFrameIdx;
 
@@ -36,19 +37,27 @@ public class ProgressTaskImage extends AnimatedImage {
   public ProgressTaskImage(ProgressTask task, Image[] frames, double scaling) {
     super(frames, scaling);
     this.task = task;
-    if (task.getProgress() != ProgressManager.UNDEFINED_PROGRESS) {
-      ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-      scheduler.scheduleAtFixedRate(() -> {
-        if (task.isDone()) {
-          scheduler.shutdown();
-        }
-        int progress = task.getProgress();
-        targetFrameIdx = (int) Math.floor((getNumFrames() - 1) * progress / 100f);
-        if(targetFrameIdx > currentFrameIdx) {
-           currentFrameIdx++;
-        }
-        repaint();
-      }, 0, 50, java.util.concurrent.TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  protected void tick(long now) {
+    int progress = task.getProgress();
+    if (progress == ProgressManager.UNDEFINED_PROGRESS) {
+      super.tick(now);
+      return;
+    }
+    if (now < nextProgressUpdate) {
+      return;
+    }
+    nextProgressUpdate = now + PROGRESS_UPDATE_MILLIS;
+    // the animation approaches the progress frame by frame
+    targetFrameIdx = (int) Math.floor((getNumFrames() - 1) * progress / 100f);
+    if (targetFrameIdx > currentFrameIdx) {
+      currentFrameIdx++;
+    }
+    repaint();
+    if (task.isDone() && currentFrameIdx >= targetFrameIdx) {
+      stop();
     }
   }
 
@@ -18,14 +18,23 @@
 package org.eomasters.gui;
 
 import java.awt.Component;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import javax.swing.JComponent;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
+import javax.swing.ListModel;
+import javax.swing.MenuElement;
 import javax.swing.MenuSelectionManager;
 import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.event.MenuKeyEvent;
+import javax.swing.event.MenuKeyListener;
 import javax.swing.event.PopupMenuEvent;
 import javax.swing.event.PopupMenuListener;
 import org.eomasters.icons.Icon;
@@ -42,6 +51,8 @@ import org.eomasters.icons.Icons;
  */
 public class ScrollableMenu {
 
+  private static final long TYPE_AHEAD_RESET_MILLIS = 1000;
+
   private final JPopupMenu menu;
   private Component[] menuItems;
   private final ScrollItem upItem;
@@ -53,6 +64,11 @@ public class ScrollableMenu {
   private int bottomFixedCount;
   private int firstIndex = 0;
   private int keepVisibleIndex = -1;
+  private final VirtualItems<?> virtualItems;
+  private boolean typeAheadEnabled;
+  private TypeAheadIndex typeAheadIndex;
+  private String typeAheadQuery = "";
+  private long lastTypedTime;
 
   /**
    * Registers a menu to be scrolled with the default number of items to display at a time and the default scrolling
@@ -119,7 +135,28 @@ public class ScrollableMenu {
    */
   public static ScrollableMenu install(JPopupMenu menu, int scrollCount, int interval, int topFixedCount,
       int bottomFixedCount) {
-    return new ScrollableMenu(menu, scrollCount, interval, topFixedCount, bottomFixedCount);
+    return new ScrollableMenu(menu, scrollCount, interval, topFixedCount, bottomFixedCount, null);
+  }
+
+  /**
+   * Registers a popup menu which shows the elements of the given model in a virtualized scrolling region. Only
+   * {@code scrollCount} menu items are created, they are updated in place with the elements currently visible, so the
+   * cost of scrolling does not depend on the number of elements. The items already contained in the popup menu are
+   * shown above the scrolling region.
+   *
+   * @param menu        the popup menu
+   * @param model       the model providing the elements
+   * @param renderer    configures a menu item, e.g. its text and icon, for an element
+   * @param action      called with the element of a menu item when the item is selected
+   * @param scrollCount the number of items to display at a time
+   * @param <E>         the type of the elements
+   * @return the ScrollableMenu
+   * @throws IllegalArgumentException if scrollCount is 0 or negative
+   */
+  public static <E> ScrollableMenu install(JPopupMenu menu, ListModel<E> model,
+      BiConsumer<JMenuItem, ? super E> renderer, Consumer<? super E> action, int scrollCount) {
+    VirtualItems<E> virtualItems = new VirtualItems<>(model, renderer, action, scrollCount);
+    return new ScrollableMenu(menu, scrollCount, 150, 0, 0, virtualItems);
   }
 
   /**
@@ -132,10 +169,12 @@ public class ScrollableMenu {
    * @param interval         the scroll interval, in milliseconds
    * @param topFixedCount    the number of items to fix at the top.  May be 0
    * @param bottomFixedCount the number of items to fix at the bottom.  May be 0
+   * @param virtualItems     the items of the virtualized mode or {@code null}
    * @throws IllegalArgumentException if scrollCount or interval is 0 or negative or if topFixedCount or
    *                                  bottomFixedCount is negative
    */
-  private ScrollableMenu(JPopupMenu menu, int scrollCount, int interval, int topFixedCount, int bottomFixedCount) {
+  private ScrollableMenu(JPopupMenu menu, int scrollCount, int interval, int topFixedCount, int bottomFixedCount,
+      VirtualItems<?> virtualItems) {
     if (scrollCount <= 0 || interval <= 0) {
       throw new IllegalArgumentException("scrollCount and interval must be greater than 0");
     }
@@ -151,7 +190,9 @@ public class ScrollableMenu {
     setBottomFixedCount(bottomFixedCount);
 
     this.menu = menu;
+    this.virtualItems = virtualItems;
     menu.addPopupMenuListener(menuListener);
+    menu.addMenuKeyListener(menuListener);
   }
 
   /**
@@ -270,14 +311,103 @@ public class ScrollableMenu {
     keepVisibleIndex = index;
   }
 
+  /**
+   * Enables the type-ahead search. While the menu is open, typing scrolls to the first item starting with the typed
+   * text, or if there is none, to the first item containing it. A pause of more than a second starts a new search.
+   *
+   * <p>The search index is built on the event dispatch thread with the first key typed after the menu has been opened
+   * or its model has changed. For a menu installed with a {@link ListModel}, this applies the renderer once to every
+   * element of the model, so the first key typed in a menu with a very large model can take noticeably longer.
+   *
+   * @param typeAheadEnabled {@code true} to enable the type-ahead search
+   */
+  public void setTypeAheadEnabled(boolean typeAheadEnabled) {
+    this.typeAheadEnabled = typeAheadEnabled;
+  }
+
+  /**
+   * Tells whether the type-ahead search is enabled.
+   *
+   * @return {@code true} if the type-ahead search is enabled
+   * @see #setTypeAheadEnabled(boolean)
+   */
+  public boolean isTypeAheadEnabled() {
+    return typeAheadEnabled;
+  }
+
   /**
    * Removes this ScrollableMenu from the associated menu and restores the default behavior of the menu.
    */
   public void dispose() {
     menu.removePopupMenuListener(menuListener);
+    menu.removeMenuKeyListener(menuListener);
+  }
+
+  private void typeAhead(char keyChar) {
+    long now = System.currentTimeMillis();
+    if (now - lastTypedTime > TYPE_AHEAD_RESET_MILLIS) {
+      typeAheadQuery = "";
+    }
+    lastTypedTime = now;
+    if (keyChar == '\b') {
+      typeAheadQuery = typeAheadQuery.isEmpty() ? "" : typeAheadQuery.substring(0, typeAheadQuery.length() - 1);
+      return;
+    }
+    typeAheadQuery += keyChar;
+    if (typeAheadIndex == null) {
+      // built on the first key typed after the menu has been opened
+      typeAheadIndex = new TypeAheadIndex(getScrollingTexts());
+    }
+    int match = typeAheadIndex.find(typeAheadQuery);
+    if (match >= 0) {
+      scrollTo(match);
+    }
+  }
+
+  private String[] getScrollingTexts() {
+    if (virtualItems != null) {
+      return virtualItems.getTexts();
+    }
+    String[] texts = new String[menuItems.length - topFixedCount - bottomFixedCount];
+    for (int i = 0; i < texts.length; i++) {
+      Component component = menuItems[topFixedCount + i];
+      texts[i] = component instanceof JMenuItem ? ((JMenuItem) component).getText() : null;
+    }
+    return texts;
+  }
+
+  private void scrollTo(int index) {
+    JMenuItem item;
+    if (virtualItems != null) {
+      firstIndex = index;
+      refreshMenu();
+      item = virtualItems.items[index - firstIndex];
+    } else {
+      firstIndex = topFixedCount + index;
+      if (menuItems.length > topFixedCount + scrollCount + bottomFixedCount) {
+        refreshMenu();
+      }
+      item = (JMenuItem) menuItems[topFixedCount + index];
+    }
+    selectItem(item);
+  }
+
+  private void selectItem(JMenuItem item) {
+    MenuSelectionManager manager = MenuSelectionManager.defaultManager();
+    MenuElement[] path = manager.getSelectedPath();
+    int menuPosition = Arrays.asList(path).indexOf(menu);
+    if (menuPosition >= 0) {
+      MenuElement[] newPath = Arrays.copyOf(path, menuPosition + 2);
+      newPath[menuPosition + 1] = item;
+      manager.setSelectedPath(newPath);
+    }
   }
 
   private void refreshMenu() {
+    if (virtualItems != null) {
+      refreshVirtualItems();
+      return;
+    }
     if (menuItems != null && menuItems.length > 0) {
       firstIndex = Math.max(topFixedCount, firstIndex);
       firstIndex = Math.min(menuItems.length - bottomFixedCount - scrollCount, firstIndex);
@@ -312,11 +442,89 @@ public class ScrollableMenu {
     }
   }
 
-  private class ScrollListener implements PopupMenuListener {
+  private void refreshVirtualItems() {
+    int size = virtualItems.model.getSize();
+    firstIndex = Math.max(0, Math.min(size - scrollCount, firstIndex));
+    upItem.setEnabled(firstIndex > 0);
+    downItem.setEnabled(firstIndex + scrollCount < size);
+    virtualItems.update(firstIndex);
+  }
+
+  private class ScrollListener implements PopupMenuListener, ListDataListener, MenuKeyListener {
+
+    @Override
+    public void menuKeyTyped(MenuKeyEvent e) {
+      char keyChar = e.getKeyChar();
+      if (typeAheadEnabled && (keyChar == '\b' || !Character.isISOControl(keyChar))) {
+        typeAhead(keyChar);
+        e.consume();
+      }
+    }
+
+    @Override
+    public void menuKeyPressed(MenuKeyEvent e) {
+      // only typed keys are of interest
+    }
+
+    @Override
+    public void menuKeyReleased(MenuKeyEvent e) {
+      // only typed keys are of interest
+    }
 
     @Override
     public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
-      setMenuItems();
+      typeAheadIndex = null;
+      typeAheadQuery = "";
+      if (virtualItems != null) {
+        setVirtualItems();
+      } else {
+        setMenuItems();
+      }
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+      modelChanged();
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+      modelChanged();
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+      modelChanged();
+    }
+
+    private void modelChanged() {
+      // the index is rebuilt on the next key typed
+      typeAheadIndex = null;
+      refreshVirtualItems();
+    }
+
+    // the structure of the menu is built once, scrolling only updates the pooled items
+    private void setVirtualItems() {
+      menuItems = menu.getComponents();
+      if (keepVisibleIndex >= 0 && (keepVisibleIndex >= firstIndex + scrollCount || keepVisibleIndex < firstIndex)) {
+        firstIndex = Math.min(firstIndex, keepVisibleIndex);
+        firstIndex = Math.max(firstIndex, keepVisibleIndex - scrollCount + 1);
+      }
+      if (menuItems.length > 0) {
+        menu.addSeparator();
+      }
+      boolean scrolling = virtualItems.model.getSize() > scrollCount;
+      if (scrolling) {
+        menu.add(upItem);
+      }
+      for (JMenuItem item : virtualItems.items) {
+        menu.add(item);
+      }
+      if (scrolling) {
+        menu.add(downItem);
+      }
+      virtualItems.model.addListDataListener(this);
+      refreshVirtualItems();
     }
 
     @Override
@@ -342,6 +550,9 @@ public class ScrollableMenu {
     }
 
     private void restoreMenuItems() {
+      if (virtualItems != null) {
+        virtualItems.model.removeListDataListener(this);
+      }
       menu.removeAll();
       for (Component component : menuItems) {
         menu.add(component);
@@ -349,6 +560,53 @@ public class ScrollableMenu {
     }
   }
 
+  private static class VirtualItems<E> {
+
+    private final ListModel<E> model;
+    private final BiConsumer<JMenuItem, ? super E> renderer;
+    private final JMenuItem[] items;
+    private int firstIndex;
+
+    VirtualItems(ListModel<E> model, BiConsumer<JMenuItem, ? super E> renderer, Consumer<? super E> action,
+        int scrollCount) {
+      if (scrollCount <= 0) {
+        throw new IllegalArgumentException("scrollCount must be greater than 0");
+      }
+      this.model = model;
+      this.renderer = renderer;
+      items = new JMenuItem[scrollCount];
+      for (int i = 0; i < items.length; i++) {
+        int slot = i;
+        items[i] = new JMenuItem();
+        items[i].addActionListener(e -> action.accept(model.getElementAt(firstIndex + slot)));
+      }
+    }
+
+    String[] getTexts() {
+      // the texts are rendered into a scratch item, as the renderer is the only source of the texts. This costs one
+      // renderer call per element, but happens only once per opened menu and model change
+      JMenuItem scratchItem = new JMenuItem();
+      String[] texts = new String[model.getSize()];
+      for (int i = 0; i < texts.length; i++) {
+        renderer.accept(scratchItem, model.getElementAt(i));
+        texts[i] = scratchItem.getText();
+      }
+      return texts;
+    }
+
+    void update(int firstIndex) {
+      this.firstIndex = firstIndex;
+      int size = model.getSize();
+      for (int i = 0; i < items.length; i++) {
+        int index = firstIndex + i;
+        items[i].setVisible(index < size);
+        if (index < size) {
+          renderer.accept(items[i], model.getElementAt(index));
+        }
+      }
+    }
+  }
+
   private class ScrollTimer extends Timer {
 
     public ScrollTimer(final int increment, int interval) {
@@ -0,0 +1,129 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.gui;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.Timer;
+
+/**
+ * Runs tasks on the event dispatch thread after a delay. All pending tasks are kept in one priority queue ordered by
+ * their due time and served by a single Swing timer, which is always set to the earliest due time. Scheduling and
+ * cancelling is cheap also with thousands of pending tasks, no thread is needed, and both can be done from any thread.
+ */
+final class SwingDelayedTasks {
+
+  private static final Logger LOG = Logger.getLogger("org.eomasters");
+  private static final PriorityQueue<DelayedTask> queue = new PriorityQueue<>();
+  private static final AtomicLong sequence = new AtomicLong();
+  private static final Timer timer = new Timer(0, e -> runDueTasks());
+
+  static {
+    timer.setRepeats(false);
+    // the timer is restarted while its event is processed, coalescing would drop the next event
+    timer.setCoalesce(false);
+  }
+
+  private SwingDelayedTasks() {
+    // prevent instantiation
+  }
+
+  /**
+   * Schedules the task to run on the event dispatch thread after the given delay.
+   *
+   * @param task        the task
+   * @param delayMillis the delay in milliseconds
+   * @return the scheduled task, which can be cancelled
+   */
+  static DelayedTask schedule(Runnable task, long delayMillis) {
+    DelayedTask delayedTask = new DelayedTask(task, System.currentTimeMillis() + Math.max(0, delayMillis),
+        sequence.getAndIncrement());
+    synchronized (queue) {
+      queue.add(delayedTask);
+      if (queue.peek() == delayedTask) {
+        restartTimer(delayedTask.dueTime);
+      }
+    }
+    return delayedTask;
+  }
+
+  private static void runDueTasks() {
+    long now = System.currentTimeMillis();
+    while (true) {
+      DelayedTask dueTask;
+      synchronized (queue) {
+        DelayedTask next = queue.peek();
+        if (next == null) {
+          return;
+        }
+        if (next.dueTime > now) {
+          restartTimer(next.dueTime);
+          return;
+        }
+        dueTask = queue.poll();
+      }
+      // run outside the lock, the task may schedule new tasks
+      if (!dueTask.cancelled) {
+        try {
+          dueTask.task.run();
+        } catch (RuntimeException e) {
+          // a failing task must not stop the remaining tasks, the timer is only re-armed by this loop
+          LOG.log(Level.WARNING, "Delayed task failed", e);
+        }
+      }
+    }
+  }
+
+  private static void restartTimer(long dueTime) {
+    timer.setInitialDelay((int) Math.max(0, Math.min(Integer.MAX_VALUE, dueTime - System.currentTimeMillis())));
+    timer.restart();
+  }
+
+  /**
+   * A task waiting to be run.
+   */
+  static final class DelayedTask implements Comparable<DelayedTask> {
+
+    private final Runnable task;
+    private final long dueTime;
+    private final long sequenceNumber;
+    private volatile boolean cancelled;
+
+    private DelayedTask(Runnable task, long dueTime, long sequenceNumber) {
+      this.task = task;
+      this.dueTime = dueTime;
+      this.sequenceNumber = sequenceNumber;
+    }
+
+    /**
+     * Cancels the task if it has not run yet. The task stays in the queue until it is due, but is not run.
+     */
+    void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public int compareTo(DelayedTask other) {
+      int result = Long.compare(dueTime, other.dueTime);
+      // tasks with the same due time run in the order they were scheduled
+      return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+    }
+  }
+}
@@ -24,19 +24,33 @@ import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableModel;
 import org.eomasters.utils.ErrorHandler;
 
 /**
  * Adapter which enables Paste Clipboard functionality on JTables.
+ *
+ * <p>The clipboard content is taken as tab separated, comma separated content can be enabled. It is parsed, converted
+ * and validated in a background task, so pasting large blocks does not block the user interface. The values are then
+ * applied at once: models implementing {@link BatchTableModel} and plain {@link DefaultTableModel}s are updated with a
+ * single table event, other models cell by cell.
  */
 public class TablePasteAdapter extends KeyAdapter {
 
+  private static final int CHUNK_ROWS = 1024;
+  private static final int MAX_REPORTED_CELLS = 20;
+
   private final JTable table;
+  private boolean csvEnabled;
 
   /**
    * The Excel Adapter is constructed with a JTable on which it enables Copy-Paste and acts as a Clipboard listener.
@@ -45,6 +59,42 @@ public class TablePasteAdapter extends KeyAdapter {
     this.table = table;
   }
 
+  /**
+   * A table model which can update a block of cells at once and notifies its listeners with a single event.
+   */
+  public interface BatchTableModel extends TableModel {
+
+    /**
+     * Sets the values of a block of cells.
+     *
+     * @param values      the values, indexed by row and column relative to the start cell
+     * @param startRow    the row of the upper left cell
+     * @param startColumn the column of the upper left cell
+     */
+    void setValuesAt(Object[][] values, int startRow, int startColumn);
+  }
+
+  /**
+   * Enables pasting comma separated text. By default, the clipboard content is taken as tab separated, as spreadsheet
+   * applications provide it, and comma separated text is only recognized if it contains quoted fields. This way cells
+   * containing commas, like {@code Hello, world} or the decimal number {@code 1,5}, are not split.
+   *
+   * @param csvEnabled {@code true} to take text with commas but without tabs as comma separated
+   */
+  public void setCsvEnabled(boolean csvEnabled) {
+    this.csvEnabled = csvEnabled;
+  }
+
+  /**
+   * Tells whether pasting comma separated text is enabled.
+   *
+   * @return {@code true} if pasting comma separated text is enabled
+   * @see #setCsvEnabled(boolean)
+   */
+  public boolean isCsvEnabled() {
+    return csvEnabled;
+  }
+
   /**
    * This method is activated on the Keystrokes we are listening to in this implementation. Here it listens for Copy and
    * Paste ActionCommands. Selections comprising non-adjacent cells result in invalid selection and then copy action
@@ -53,71 +103,254 @@ public class TablePasteAdapter extends KeyAdapter {
    */
   public void keyPressed(KeyEvent e) {
     if (InputEvent.CTRL_DOWN_MASK == e.getModifiersEx() && KeyEvent.VK_V == e.getKeyCode()) {
-      int[] selectedRows = table.getSelectedRows();
-      if (selectedRows.length == 0) {
-        return;
-      }
-      int startRow = selectedRows[0];
-      int[] selectedColumns = table.getSelectedColumns();
-      if (selectedColumns.length == 0) {
-        return;
-      }
-      int startCol = selectedColumns[0];
-      Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-      String[] lines = canBePasted(clipboard, startCol, startRow);
-      if (lines == null) {
-        return;
-      }
+      paste();
+    }
+  }
+
+  /**
+   * Pastes the content of the system clipboard into the table, starting at the first selected cell. Parsing and
+   * validation are done in the background, the returned worker can be used to wait for the completion.
+   *
+   * @return the worker doing the paste or {@code null} if nothing is selected or the clipboard content is invalid
+   */
+  public SwingWorker<Object[][], Void> paste() {
+    int[] selectedRows = table.getSelectedRows();
+    if (selectedRows.length == 0) {
+      return null;
+    }
+    int startRow = selectedRows[0];
+    int[] selectedColumns = table.getSelectedColumns();
+    if (selectedColumns.length == 0) {
+      return null;
+    }
+    int startCol = selectedColumns[0];
+    Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+    String text;
+    try {
+      text = (String) (clipboard.getContents(this).getTransferData(DataFlavor.stringFlavor));
+    } catch (UnsupportedFlavorException | IOException ex) {
+      ErrorHandler.handleError("Cannot paste", "Invalid clipboard content.", ex);
+      return null;
+    }
+    // the table model is not thread-safe, so everything needed from it is read before the worker starts
+    PasteTarget target = new PasteTarget(table.getModel(), startRow, startCol, ClipboardTableParser.countLines(text));
+    PasteWorker worker = new PasteWorker(text, target, csvEnabled);
+    worker.execute();
+    return worker;
+  }
+
+  /**
+   * Prepares pasting the text at the given position. Must be called on the event dispatch thread.
+   *
+   * @see #preparePaste(String, PasteTarget, boolean)
+   */
+  Object[][] preparePaste(String text, int startRow, int startCol) throws PasteException {
+    PasteTarget target = new PasteTarget(table.getModel(), startRow, startCol, ClipboardTableParser.countLines(text));
+    return preparePaste(text, target, csvEnabled);
+  }
+
+  /**
+   * Parses the text and checks that the values fit into the target. Tab separated text and, if enabled or quoted,
+   * comma separated text is supported. The values are converted to the classes of the columns, larger pastes are
+   * converted in parallel chunks of rows. All invalid cells are reported together. The table model is not accessed, so
+   * this can be called from any thread.
+   *
+   * @return the values to paste or {@code null} if there is nothing to paste
+   * @throws PasteException if the values can not be pasted
+   */
+  static Object[][] preparePaste(String text, PasteTarget target, boolean csvEnabled) throws PasteException {
+    List<String[]> rows = ClipboardTableParser.parse(text, ClipboardTableParser.detectDelimiter(text, csvEnabled));
+    if (rows.isEmpty()) {
+      return null;
+    }
+    int numCols = rows.stream().mapToInt(row -> row.length).max().getAsInt();
+    if (numCols > target.columnClasses.length) {
+      throw new PasteException("Cannot paste. Not enough columns in table.");
+    }
+    if (rows.size() > target.editable.length) {
+      throw new PasteException("Cannot paste. Not enough rows in table.");
+    }
+
+    Object[][] values = new Object[rows.size()][];
+    int numChunks = (rows.size() + CHUNK_ROWS - 1) / CHUNK_ROWS;
+    IntStream chunks = IntStream.range(0, numChunks);
+    if (numChunks > 1) {
+      chunks = chunks.parallel();
+    }
+    List<String> invalidCells = chunks.mapToObj(chunk -> {
+      int end = Math.min(rows.size(), (chunk + 1) * CHUNK_ROWS);
+      return convertRows(target, rows, values, chunk * CHUNK_ROWS, end);
+    }).flatMap(List::stream).collect(Collectors.toList());
+    if (!invalidCells.isEmpty()) {
+      throw new PasteException(createInvalidCellsMessage(invalidCells));
+    }
+    return values;
+  }
 
-      TableModel model = table.getModel();
-      for (int y = 0; y < lines.length; y++) {
-        String line = lines[y];
-        String[] rowCells = line.split("\t");
-        int row = startRow + y;
-        for (int x = 0; x < rowCells.length; x++) {
-          int column = startCol + x;
-          model.setValueAt(rowCells[x], row, column);
+  private static List<String> convertRows(PasteTarget target, List<String[]> rows, Object[][] values, int begin,
+      int end) {
+    List<String> invalidCells = new ArrayList<>();
+    for (int y = begin; y < end; y++) {
+      String[] cells = rows.get(y);
+      Object[] rowValues = new Object[cells.length];
+      for (int x = 0; x < cells.length; x++) {
+        if (!target.editable[y][x]) {
+          invalidCells.add(target.getCellName(y, x) + " is not editable.");
+          continue;
+        }
+        Class<?> columnClass = target.columnClasses[x];
+        try {
+          rowValues[x] = ClipboardTableParser.convert(cells[x], columnClass);
+        } catch (NumberFormatException e) {
+          invalidCells.add(target.getCellName(y, x) + ": '" + cells[x] + "' is not a valid "
+              + columnClass.getSimpleName() + ".");
         }
       }
+      values[y] = rowValues;
     }
+    return invalidCells;
   }
 
-  private String[] canBePasted(Clipboard system, int startCol, int startRow) {
-    try {
-      String trstring = (String) (system.getContents(this).getTransferData(DataFlavor.stringFlavor));
-      String[] lines = new BufferedReader(new StringReader(trstring)).lines().toArray(String[]::new);
-      if (lines.length == 0) {
-        return null;
-      }
-      int numCols = lines[0].split("\t").length;
-      if (numCols == 0) {
-        return null;
-      }
-      if (startCol + numCols > table.getColumnCount()) {
-        ErrorHandler.handleError("Cannot paste", "Cannot paste. Not enough columns in table.");
-        return null;
+  private static String createInvalidCellsMessage(List<String> invalidCells) {
+    StringBuilder message = new StringBuilder("Cannot paste. Invalid cells:");
+    int numShown = Math.min(invalidCells.size(), MAX_REPORTED_CELLS);
+    for (int i = 0; i < numShown; i++) {
+      message.append('\n').append(invalidCells.get(i));
+    }
+    if (invalidCells.size() > numShown) {
+      message.append("\n... and ").append(invalidCells.size() - numShown).append(" more.");
+    }
+    return message.toString();
+  }
+
+  /**
+   * Applies the values to the model. Must be called on the event dispatch thread.
+   *
+   * @return {@code false} if the values do not fit into the model anymore, e.g. because rows have been removed while
+   *     the values were prepared, nothing is changed then
+   */
+  static boolean applyValues(TableModel model, Object[][] values, int startRow, int startCol) {
+    int numCols = 0;
+    for (Object[] rowValues : values) {
+      numCols = Math.max(numCols, rowValues.length);
+    }
+    if (startRow + values.length > model.getRowCount() || startCol + numCols > model.getColumnCount()) {
+      return false;
+    }
+    if (model instanceof BatchTableModel) {
+      ((BatchTableModel) model).setValuesAt(values, startRow, startCol);
+    } else if (model.getClass() == DefaultTableModel.class) {
+      // the data is changed directly, so only one event is fired instead of one per cell. Subclasses might override
+      // setValueAt, e.g. to validate the values, therefore they are updated cell by cell
+      DefaultTableModel defaultModel = (DefaultTableModel) model;
+      List<?> dataVector = defaultModel.getDataVector();
+      for (int y = 0; y < values.length; y++) {
+        @SuppressWarnings("unchecked")
+        List<Object> rowData = (List<Object>) dataVector.get(startRow + y);
+        for (int x = 0; x < values[y].length; x++) {
+          rowData.set(startCol + x, values[y][x]);
+        }
       }
-      if (startRow + lines.length > table.getRowCount()) {
-        ErrorHandler.handleError("Cannot paste", "Cannot paste. Not enough rows in table.");
-        return null;
+      defaultModel.fireTableRowsUpdated(startRow, startRow + values.length - 1);
+    } else {
+      for (int y = 0; y < values.length; y++) {
+        for (int x = 0; x < values[y].length; x++) {
+          model.setValueAt(values[y][x], startRow + y, startCol + x);
+        }
       }
+    }
+    return true;
+  }
+
+  /**
+   * Signals that the clipboard content can not be pasted.
+   */
+  static class PasteException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    PasteException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * The part of the table model needed to prepare a paste, starting at a cell. It is read on the event dispatch thread,
+   * so the values can be prepared in the background without accessing the model.
+   */
+  static final class PasteTarget {
+
+    private final int startRow;
+    private final int startCol;
+    private final Class<?>[] columnClasses;
+    private final String[] columnNames;
+    private final boolean[][] editable;
 
-      for (int y = 0; y < lines.length; y++) {
-        int row = startRow + y;
+    /**
+     * Reads the target from the model.
+     *
+     * @param model    the model
+     * @param startRow the row of the upper left cell
+     * @param startCol the column of the upper left cell
+     * @param maxRows  the maximum number of rows to paste, the editability is read only for these
+     */
+    PasteTarget(TableModel model, int startRow, int startCol, int maxRows) {
+      this.startRow = startRow;
+      this.startCol = startCol;
+      int numCols = Math.max(0, model.getColumnCount() - startCol);
+      int numRows = Math.max(0, Math.min(model.getRowCount() - startRow, maxRows));
+      columnClasses = new Class<?>[numCols];
+      columnNames = new String[numCols];
+      for (int x = 0; x < numCols; x++) {
+        columnClasses[x] = model.getColumnClass(startCol + x);
+        columnNames[x] = model.getColumnName(startCol + x);
+      }
+      editable = new boolean[numRows][numCols];
+      for (int y = 0; y < numRows; y++) {
         for (int x = 0; x < numCols; x++) {
-          int column = startCol + x;
-          if (!table.getModel().isCellEditable(row, column)) {
-            ErrorHandler.handleError("Cannot paste", "Cannot paste. Cell is not editable.");
-            return null;
-          }
+          editable[y][x] = model.isCellEditable(startRow + y, startCol + x);
         }
       }
-      return lines;
-    } catch (UnsupportedFlavorException | IOException ex) {
-      ErrorHandler.handleError("Cannot paste", "Invalid clipboard content.", ex);
     }
-    return null;
+
+    private String getCellName(int y, int x) {
+      return "Row " + (startRow + y + 1) + ", column '" + columnNames[x] + "'";
+    }
   }
 
+  private class PasteWorker extends SwingWorker<Object[][], Void> {
 
+    private final String text;
+    private final PasteTarget target;
+    private final boolean csvEnabled;
+
+    PasteWorker(String text, PasteTarget target, boolean csvEnabled) {
+      this.text = text;
+      this.target = target;
+      this.csvEnabled = csvEnabled;
+    }
+
+    @Override
+    protected Object[][] doInBackground() throws PasteException {
+      return preparePaste(text, target, csvEnabled);
+    }
+
+    @Override
+    protected void done() {
+      try {
+        Object[][] values = get();
+        if (values != null && !applyValues(table.getModel(), values, target.startRow, target.startCol)) {
+          ErrorHandler.handleError("Cannot paste", "Cannot paste. The table has changed while pasting.");
+        }
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof PasteException) {
+          ErrorHandler.handleError("Cannot paste", e.getCause().getMessage());
+        } else {
+          ErrorHandler.handleError("Cannot paste", "Invalid clipboard content.", e.getCause());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
 }
@@ -0,0 +1,96 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.gui;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Index over the texts of menu items for the type-ahead search of the {@link ScrollableMenu}. Prefix matches are
+ * found with a binary search over the sorted texts. If no text starts with the query, the texts containing it are
+ * searched. Typing usually extends the previous query, therefore the substring matches of the previous query are kept
+ * and only narrowed down instead of scanning all texts again.
+ */
+class TypeAheadIndex {
+
+  private final String[] texts;
+  private final Integer[] sortedIndices;
+  private String lastQuery;
+  private int[] lastMatches;
+
+  TypeAheadIndex(String[] texts) {
+    this.texts = new String[texts.length];
+    for (int i = 0; i < texts.length; i++) {
+      this.texts[i] = texts[i] != null ? texts[i].toLowerCase(Locale.ROOT) : "";
+    }
+    sortedIndices = IntStream.range(0, texts.length).boxed().toArray(Integer[]::new);
+    Arrays.sort(sortedIndices, Comparator.comparing((Integer i) -> this.texts[i]).thenComparing(i -> i));
+  }
+
+  /**
+   * Finds the text matching the query, ignoring the case. A text starting with the query is preferred, the first one
+   * in alphabetical order is returned. Otherwise, the first text containing the query is returned.
+   *
+   * @param query the query
+   * @return the index of the matching text or -1 if no text matches
+   */
+  int find(String query) {
+    String lowerQuery = query.toLowerCase(Locale.ROOT);
+    if (lowerQuery.isEmpty()) {
+      return -1;
+    }
+    int prefixMatch = findPrefix(lowerQuery);
+    if (prefixMatch >= 0) {
+      return prefixMatch;
+    }
+    int[] matches = findContaining(lowerQuery);
+    return matches.length > 0 ? matches[0] : -1;
+  }
+
+  private int findPrefix(String query) {
+    int low = 0;
+    int high = sortedIndices.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (texts[sortedIndices[mid]].compareTo(query) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    if (low < sortedIndices.length && texts[sortedIndices[low]].startsWith(query)) {
+      return sortedIndices[low];
+    }
+    return -1;
+  }
+
+  private int[] findContaining(String query) {
+    IntStream candidates;
+    if (lastQuery != null && query.contains(lastQuery)) {
+      // all texts containing the extended query also contain the previous one
+      candidates = Arrays.stream(lastMatches);
+    } else {
+      candidates = IntStream.range(0, texts.length);
+    }
+    lastMatches = candidates.filter(i -> texts[i].contains(query)).toArray();
+    lastQuery = query;
+    return lastMatches;
+  }
+}
@@ -25,17 +25,18 @@ public final class Additions {
   /**
    * The eye addition for icons.
    */
-  public static final Icon EYE = new RasterIcon("/icons/" + "additions/Eye_addition", Additions.class);
+  public static final Icon EYE = new AtlasIcon(new RasterIcon("/icons/" + "additions/Eye_addition", Additions.class));
 
   /**
    * The Minus addition for icons.
    */
-  public static final Icon MINUS = new RasterIcon("/icons/" + "additions/Minus_addition", Additions.class);
+  public static final Icon MINUS =
+      new AtlasIcon(new RasterIcon("/icons/" + "additions/Minus_addition", Additions.class));
 
   /**
    * The Plus addition for icons.
    */
-  public static final Icon PLUS = new RasterIcon("/icons/" + "additions/Plus_addition", Additions.class);
+  public static final Icon PLUS = new AtlasIcon(new RasterIcon("/icons/" + "additions/Plus_addition", Additions.class));
 
   private Additions() {
   }
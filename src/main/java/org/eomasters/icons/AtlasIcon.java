@@ -0,0 +1,53 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.icons;
+
+import java.awt.image.BufferedImage;
+import javax.swing.ImageIcon;
+
+/**
+ * An icon which is sliced from the pre-rendered {@link IconAtlas} of its size. If the icon is not contained in an
+ * atlas, e.g. for sizes which are not pre-rendered, the image is created by the source icon.
+ */
+public class AtlasIcon extends Icon {
+
+  private final Icon source;
+
+  /**
+   * Creates a new atlas icon.
+   *
+   * @param source the icon which is used if the icon is not contained in an atlas
+   */
+  public AtlasIcon(Icon source) {
+    super(source.getPath(), source.getLoadingClass());
+    this.source = source;
+  }
+
+  @Override
+  protected ImageIcon createIcon(int size) {
+    BufferedImage image = IconAtlas.getImage(getPath(), size);
+    if (image != null) {
+      return new ImageIcon(image);
+    }
+    return source.createIcon(size);
+  }
+
+  @Override
+  protected boolean supportsSize(int size) {
+    return source.supportsSize(size);
+  }
+}
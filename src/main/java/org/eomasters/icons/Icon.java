@@ -20,6 +20,8 @@ package org.eomasters.icons;
 import java.awt.Image;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.ImageIcon;
 
 public abstract class Icon {
@@ -31,6 +33,7 @@ public abstract class Icon {
 
   private final String path;
   private final Class<?> loadingClass;
+  private final Map<Icon, Icon> additions = new ConcurrentHashMap<>();
 
   protected Icon(String path) {
     this(path, Icon.class);
@@ -49,8 +52,18 @@ public abstract class Icon {
     return loadingClass;
   }
 
+  /**
+   * Returns the image icon of the given size. The icon is only rendered on the first request, subsequent requests
+   * return the same image icon from the {@link IconCache}. The image of the icon is a
+   * {@link java.awt.image.MultiResolutionImage}, on scaled displays a variant matching the scale factor is rendered
+   * when the icon is painted.
+   *
+   * @param size the size of the icon
+   * @return the image icon
+   */
   public ImageIcon getImageIcon(int size) {
-    return createIcon(size);
+    return IconCache.get(this, size, 1.0,
+        () -> new ImageIcon(new MultiResolutionIconImage(this, size, createIcon(size).getImage())));
   }
 
   public List<? extends Image> getImages(int[] sizes) {
@@ -63,8 +76,26 @@ public abstract class Icon {
 
   protected abstract ImageIcon createIcon(int size);
 
+  /**
+   * Tells whether this icon can be created in the given size. Used to decide if a resolution variant can be provided
+   * for scaled displays.
+   *
+   * @param size the size of the icon
+   * @return {@code true} if {@link #createIcon(int)} supports the size
+   */
+  protected boolean supportsSize(int size) {
+    return true;
+  }
+
+  /**
+   * Returns this icon combined with the given addition. The combined icon is created once per addition and reused, so
+   * its images are composed only once.
+   *
+   * @param addition the addition shown in the upper left corner
+   * @return the combined icon
+   */
   public Icon withAddition(Icon addition) {
-    return new IconWithAddition(this, addition);
+    return additions.computeIfAbsent(addition, a -> new IconWithAddition(this, a));
   }
 
 }
@@ -0,0 +1,101 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.icons;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+
+/**
+ * Provides access to the icon atlases generated by the {@link IconAtlasGenerator} during the build. There is one atlas
+ * image per size, containing all icons of this size, and an index which maps the icon paths to the position within
+ * the atlas. Each atlas is loaded on first use with a single resource read.
+ */
+final class IconAtlas {
+
+  static final String ATLAS_DIR = "/icons/atlas";
+  static final String INDEX_NAME = "index.properties";
+
+  private static final Logger LOG = Logger.getLogger("org.eomasters");
+  private static Properties index;
+  private static final Map<Integer, BufferedImage> atlases = new HashMap<>();
+
+  private IconAtlas() {
+    // prevent instantiation
+  }
+
+  static String getAtlasName(int size) {
+    return "atlas_" + size + ".png";
+  }
+
+  static String getIndexKey(String path, int size) {
+    return path + "@" + size;
+  }
+
+  /**
+   * Returns the image of the icon with the given path and size from the atlas.
+   *
+   * @param path the path of the icon
+   * @param size the size of the icon
+   * @return the image or {@code null} if the icon is not contained in an atlas
+   */
+  static synchronized BufferedImage getImage(String path, int size) {
+    String position = getIndex().getProperty(getIndexKey(path, size));
+    if (position == null) {
+      return null;
+    }
+    BufferedImage atlas = atlases.computeIfAbsent(size, IconAtlas::loadAtlas);
+    if (atlas == null) {
+      return null;
+    }
+    String[] xy = position.split(",");
+    return atlas.getSubimage(Integer.parseInt(xy[0]), Integer.parseInt(xy[1]), size, size);
+  }
+
+  private static Properties getIndex() {
+    if (index == null) {
+      index = new Properties();
+      try (InputStream inputStream = IconAtlas.class.getResourceAsStream(ATLAS_DIR + "/" + INDEX_NAME)) {
+        // not available if the resources are used without running the build, e.g. in the IDE
+        if (inputStream != null) {
+          index.load(inputStream);
+        }
+      } catch (IOException e) {
+        LOG.log(Level.WARNING, "Not able to read icon atlas index", e);
+      }
+    }
+    return index;
+  }
+
+  private static BufferedImage loadAtlas(int size) {
+    String atlasPath = ATLAS_DIR + "/" + getAtlasName(size);
+    try (InputStream inputStream = IconAtlas.class.getResourceAsStream(atlasPath)) {
+      if (inputStream != null) {
+        return ImageIO.read(inputStream);
+      }
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Not able to read icon atlas: " + atlasPath, e);
+    }
+    return null;
+  }
+}
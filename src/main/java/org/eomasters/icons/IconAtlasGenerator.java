@@ -0,0 +1,124 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.icons;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import org.eomasters.utils.ImageUtils;
+
+/**
+ * Generates the {@link IconAtlas} during the build. All SVG and PNG icons below the {@code icons} folder of the
+ * resources are rendered into one atlas image per size. Icons available as PNG for a size are taken as they are, SVG
+ * icons are rendered. The atlases and the index are written to the given output directory.
+ *
+ * <p>Usage: {@code IconAtlasGenerator <resources directory> <output directory>}
+ */
+public final class IconAtlasGenerator {
+
+  static final int[] SIZES = {Icon.SIZE_16, 24, Icon.SIZE_32, Icon.SIZE_48};
+
+  private static final Pattern RASTER_ICON_PATTERN = Pattern.compile("(.*)_(\\d+)\\.png");
+
+  private IconAtlasGenerator() {
+    // prevent instantiation
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("Usage: IconAtlasGenerator <resources directory> <output directory>");
+    }
+    generate(Paths.get(args[0]), Paths.get(args[1]));
+  }
+
+  /**
+   * Generates the atlases and the index.
+   *
+   * @param resourcesDir the resources directory containing the {@code icons} folder
+   * @param outputDir    the directory to write the atlases and the index to
+   * @throws IOException if an icon can not be read or the atlas can not be written
+   */
+  public static void generate(Path resourcesDir, Path outputDir) throws IOException {
+    Files.createDirectories(outputDir);
+    Properties index = new Properties();
+    for (int size : SIZES) {
+      Map<String, Image> images = collectImages(resourcesDir, size);
+      int columns = (int) Math.ceil(Math.sqrt(images.size()));
+      int rows = columns == 0 ? 0 : (int) Math.ceil(images.size() / (double) columns);
+      BufferedImage atlas = new BufferedImage(Math.max(columns * size, 1), Math.max(rows * size, 1),
+          BufferedImage.TYPE_INT_ARGB);
+      Graphics2D graphics = atlas.createGraphics();
+      // the icons are copied, blending with the empty background would alter semi-transparent pixels
+      graphics.setComposite(AlphaComposite.Src);
+      int i = 0;
+      for (Map.Entry<String, Image> entry : images.entrySet()) {
+        int x = (i % columns) * size;
+        int y = (i / columns) * size;
+        graphics.drawImage(entry.getValue(), x, y, size, size, null);
+        index.setProperty(IconAtlas.getIndexKey(entry.getKey(), size), x + "," + y);
+        i++;
+      }
+      graphics.dispose();
+      ImageIO.write(atlas, "png", outputDir.resolve(IconAtlas.getAtlasName(size)).toFile());
+    }
+    try (OutputStream outputStream = Files.newOutputStream(outputDir.resolve(IconAtlas.INDEX_NAME))) {
+      index.store(outputStream, "Icon atlas index: <icon path>@<size>=<x>,<y>");
+    }
+  }
+
+  private static Map<String, Image> collectImages(Path resourcesDir, int size) throws IOException {
+    Map<String, Image> images = new TreeMap<>();
+    for (Path file : listFiles(resourcesDir.resolve("icons"))) {
+      String resourcePath = "/" + resourcesDir.relativize(file).toString().replace('\\', '/');
+      if (resourcePath.endsWith(".svg")) {
+        String iconPath = resourcePath.substring(0, resourcePath.length() - ".svg".length());
+        // a raster image provided for this size takes precedence
+        if (!Files.exists(file.resolveSibling(file.getFileName().toString().replace(".svg", "_" + size + ".png")))) {
+          images.put(iconPath, ImageUtils.loadSvgImage(file.toUri().toURL(), size, size));
+        }
+      } else {
+        Matcher matcher = RASTER_ICON_PATTERN.matcher(resourcePath);
+        if (matcher.matches() && Integer.parseInt(matcher.group(2)) == size) {
+          images.put(matcher.group(1), ImageIO.read(file.toFile()));
+        }
+      }
+    }
+    return images;
+  }
+
+  private static Iterable<Path> listFiles(Path dir) throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      return files.filter(Files::isRegularFile)
+                  .filter(f -> !f.startsWith(dir.resolve("atlas")))
+                  .collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.icons;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import javax.swing.ImageIcon;
+import org.eomasters.utils.SoftLruCache;
+
+/**
+ * Caches the rendered images of the {@link Icon}s, so that repeated requests for the same icon, size and scale return
+ * the same {@link ImageIcon} without rendering it again. The images are kept in a bounded {@link SoftLruCache}.
+ */
+public final class IconCache {
+
+  private static final int DEFAULT_MAXIMUM_SIZE = 512;
+
+  private static final SoftLruCache<Key, ImageIcon> cache = new SoftLruCache<>(DEFAULT_MAXIMUM_SIZE);
+
+  private IconCache() {
+    // prevent instantiation
+  }
+
+  /**
+   * Sets the maximum number of images kept in the cache.
+   *
+   * @param maximumSize the maximum number of images, must be positive
+   */
+  public static void setMaximumSize(int maximumSize) {
+    cache.setMaximumSize(maximumSize);
+  }
+
+  /**
+   * Returns the number of images currently kept in the cache.
+   *
+   * @return the number of images
+   */
+  public static int size() {
+    return cache.size();
+  }
+
+  /**
+   * Removes all images from the cache.
+   */
+  public static void clear() {
+    cache.clear();
+  }
+
+  /**
+   * Renders the given icons in the given sizes on the given executor and puts them into the cache. The sizes of one
+   * icon are rendered by the same job, so the icon source is only parsed once, and the icons are rendered in parallel.
+   *
+   * @param icons    the icons to render
+   * @param sizes    the sizes to render
+   * @param executor the executor running the rendering jobs
+   * @return a future which completes when all icons are rendered
+   */
+  public static CompletableFuture<Void> prewarm(Collection<? extends Icon> icons, int[] sizes, Executor executor) {
+    CompletableFuture<?>[] futures = icons.stream()
+                                          .map(icon -> CompletableFuture.runAsync(() -> {
+                                            for (int size : sizes) {
+                                              icon.getImageIcon(size);
+                                            }
+                                          }, executor))
+                                          .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(futures);
+  }
+
+  static ImageIcon get(Icon icon, int size, double scale, Supplier<ImageIcon> renderer) {
+    Key key = new Key(icon, size, scale);
+    ImageIcon imageIcon = cache.get(key);
+    if (imageIcon != null) {
+      return imageIcon;
+    }
+    return cache.putIfAbsent(key, renderer.get());
+  }
+
+  static boolean contains(Icon icon, int size, double scale) {
+    return cache.get(new Key(icon, size, scale)) != null;
+  }
+
+  private static final class Key {
+
+    private final Class<?> iconType;
+    private final String path;
+    private final int size;
+    private final double scale;
+
+    private Key(Icon icon, int size, double scale) {
+      this.iconType = icon.getClass();
+      this.path = icon.getPath();
+      this.size = size;
+      this.scale = scale;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return size == other.size && Double.compare(scale, other.scale) == 0 && iconType == other.iconType
+          && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(iconType, path, size, scale);
+    }
+  }
+}
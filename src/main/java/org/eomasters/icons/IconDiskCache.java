@@ -0,0 +1,183 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.icons;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import org.eomasters.utils.SystemHelper;
+
+/**
+ * Persists the rasterized images of the {@link SvgIcon}s as PNG files in the user cache directory, so that later
+ * application starts do not need to transcode the SVG files again. The cache entries are keyed by the icon path, the
+ * size and a hash of the SVG content. Entries of changed SVG files are therefore never used, and an entry which can not
+ * be read or does not have the expected size is discarded and rendered again.
+ */
+public final class IconDiskCache {
+
+  private static final Logger LOG = Logger.getLogger("org.eomasters");
+  // increase if the rendering changes, so existing cache entries are not used anymore
+  private static final int FORMAT_VERSION = 1;
+
+  private static volatile Path directory = SystemHelper.getUserCacheDir().resolve("eomasters").resolve("icons");
+  private static volatile boolean enabled = true;
+
+  private IconDiskCache() {
+    // prevent instantiation
+  }
+
+  /**
+   * Sets the directory where the cache entries are stored. By default, this is {@code eomasters/icons} in the
+   * {@link SystemHelper#getUserCacheDir() user cache directory}.
+   *
+   * @param directory the cache directory
+   */
+  public static void setDirectory(Path directory) {
+    IconDiskCache.directory = directory;
+  }
+
+  public static Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Enables or disables the disk cache. If disabled, icons are neither read from nor written to the disk.
+   *
+   * @param enabled whether the disk cache shall be used
+   */
+  public static void setEnabled(boolean enabled) {
+    IconDiskCache.enabled = enabled;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Deletes all entries of the cache.
+   *
+   * @throws IOException if the entries can not be deleted
+   */
+  public static void clear() throws IOException {
+    Path dir = directory;
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  /**
+   * Computes the hash of SVG content, which is part of the key of a cache entry.
+   *
+   * @param content the SVG content
+   * @return the hash
+   */
+  static String hash(byte[] content) {
+    return HexFormat.of().formatHex(sha256(content));
+  }
+
+  /**
+   * Reads the cached image of an icon.
+   *
+   * @param path        the path of the icon
+   * @param size        the size of the image
+   * @param contentHash the hash of the SVG content
+   * @return the image or {@code null} if it is not cached or the cache entry is invalid
+   */
+  static BufferedImage read(String path, int size, String contentHash) {
+    if (!enabled) {
+      return null;
+    }
+    Path file = getFile(path, size, contentHash);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      BufferedImage image = ImageIO.read(inputStream);
+      if (image != null && image.getWidth() == size && image.getHeight() == size) {
+        return image;
+      }
+    } catch (IOException e) {
+      LOG.log(Level.FINE, "Not able to read cached icon: " + file, e);
+    }
+    LOG.fine("Discarding invalid cached icon: " + file);
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignored) {
+      // will be overwritten
+    }
+    return null;
+  }
+
+  /**
+   * Writes the image of an icon to the cache.
+   *
+   * @param path        the path of the icon
+   * @param size        the size of the image
+   * @param contentHash the hash of the SVG content
+   * @param image       the image
+   */
+  static void write(String path, int size, String contentHash, BufferedImage image) {
+    if (!enabled) {
+      return;
+    }
+    Path file = getFile(path, size, contentHash);
+    try {
+      Files.createDirectories(file.getParent());
+      // written to a temporary file first, so other processes never see a partially written entry
+      Path tempFile = Files.createTempFile(file.getParent(), "icon", ".tmp");
+      try {
+        ImageIO.write(image, "png", tempFile.toFile());
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      LOG.log(Level.FINE, "Not able to cache icon: " + file, e);
+    }
+  }
+
+  private static Path getFile(String path, int size, String contentHash) {
+    String key = FORMAT_VERSION + "\n" + path + "\n" + size + "\n" + contentHash;
+    String name = HexFormat.of().formatHex(sha256(key.getBytes(StandardCharsets.UTF_8)));
+    return directory.resolve(name + ".png");
+  }
+
+  private static byte[] sha256(byte[] data) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(data);
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -20,6 +20,7 @@ package org.eomasters.icons;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import javax.swing.ImageIcon;
+import org.eomasters.utils.ImageUtils;
 
 class IconWithAddition extends Icon {
 
@@ -32,16 +33,26 @@ class IconWithAddition extends Icon {
     this.addition = addition;
   }
 
+  /**
+   * Composes the icon from the cached images of the source and the addition. The result is cached by
+   * {@link #getImageIcon(int)}, so the composition is done once per size.
+   */
   @Override
   protected ImageIcon createIcon(int size) {
     ImageIcon srcImage = source.getImageIcon(size);
     ImageIcon addImage = addition.getImageIcon(size);
 
-    BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_4BYTE_ABGR);
+    BufferedImage image = ImageUtils.createCompatibleImage(size, size);
     Graphics2D canvas = image.createGraphics();
     int quarter = size / 4;
     canvas.drawImage(srcImage.getImage(), quarter, 0, size - quarter, size - quarter, null);
     canvas.drawImage(addImage.getImage(), 0, 0, null);
+    canvas.dispose();
     return new ImageIcon(image);
   }
+
+  @Override
+  protected boolean supportsSize(int size) {
+    return source.supportsSize(size) && addition.supportsSize(size);
+  }
 }
@@ -0,0 +1,77 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.icons;
+
+import java.awt.Image;
+import java.awt.image.AbstractMultiResolutionImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.swing.ImageIcon;
+
+/**
+ * The image of an {@link Icon} which provides resolution variants for scaled displays. Swing asks for the variant
+ * matching the device scale factor when painting. The variants are rendered from the icon source on first request and
+ * kept in the {@link IconCache}, so each scale is rasterized only once and the icon stays crisp instead of being
+ * upsampled.
+ */
+class MultiResolutionIconImage extends AbstractMultiResolutionImage {
+
+  private final Icon icon;
+  private final int size;
+  private final Image baseImage;
+  // variant sizes requested so far, mapped to whether the icon can provide them
+  private final Map<Integer, Boolean> variantSizes = new ConcurrentSkipListMap<>();
+
+  MultiResolutionIconImage(Icon icon, int size, Image baseImage) {
+    this.icon = icon;
+    this.size = size;
+    this.baseImage = baseImage;
+  }
+
+  @Override
+  protected Image getBaseImage() {
+    return baseImage;
+  }
+
+  @Override
+  public Image getResolutionVariant(double destImageWidth, double destImageHeight) {
+    int variantSize = (int) Math.ceil(Math.max(destImageWidth, destImageHeight));
+    if (variantSize <= size || !variantSizes.computeIfAbsent(variantSize, icon::supportsSize)) {
+      return baseImage;
+    }
+    return getVariant(variantSize).getImage();
+  }
+
+  @Override
+  public List<Image> getResolutionVariants() {
+    List<Image> variants = new ArrayList<>();
+    variants.add(baseImage);
+    variantSizes.forEach((variantSize, supported) -> {
+      if (supported) {
+        variants.add(getVariant(variantSize).getImage());
+      }
+    });
+    return variants;
+  }
+
+  private ImageIcon getVariant(int variantSize) {
+    return IconCache.get(icon, size, (double) variantSize / size, () -> icon.createIcon(variantSize));
+  }
+}
@@ -44,4 +44,9 @@ public class RasterIcon extends Icon {
     return new ImageIcon(resource);
   }
 
+  @Override
+  protected boolean supportsSize(int size) {
+    return getLoadingClass().getResource(getPath() + "_" + size + ".png") != null;
+  }
+
 }
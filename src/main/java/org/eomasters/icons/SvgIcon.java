@@ -18,8 +18,9 @@
 package org.eomasters.icons;
 
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.util.Objects;
 import java.util.logging.Logger;
 import javax.swing.ImageIcon;
 import org.eomasters.utils.ImageUtils;
@@ -36,8 +37,19 @@ public class SvgIcon extends Icon {
   protected ImageIcon createIcon(int size) {
     String iconPath = getPath() + ".svg";
     try {
-      InputStream resource = getLoadingClass().getResourceAsStream(iconPath);
-      return new ImageIcon(ImageUtils.loadSvgImage(resource, size, size));
+      URL resource = Objects.requireNonNull(getLoadingClass().getResource(iconPath));
+      byte[] content;
+      try (InputStream inputStream = resource.openStream()) {
+        content = inputStream.readAllBytes();
+      }
+      String contentHash = IconDiskCache.hash(content);
+      BufferedImage image = IconDiskCache.read(iconPath, size, contentHash);
+      if (image == null) {
+        // the parsed SVG is cached, rendering other sizes of this icon only costs the rasterization
+        image = (BufferedImage) ImageUtils.loadSvgImage(resource, size, size);
+        IconDiskCache.write(iconPath, size, contentHash, image);
+      }
+      return new ImageIcon(image);
     } catch (Throwable e) {
       LOG.warning("Not able to load image icon: " + iconPath);
       return new ImageIcon(new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB));
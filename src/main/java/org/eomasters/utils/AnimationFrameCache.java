@@ -0,0 +1,142 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.utils;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Objects;
+import javax.imageio.ImageIO;
+
+/**
+ * Caches the decoded frames of animations, e.g. the progress animations, so that showing the same animation again does
+ * not decode the frames again and all users of an animation share one set of frames. The frames are cached per
+ * resource and scale in a {@link SoftLruCache}, which holds only a few animations because their frames are large.
+ */
+public final class AnimationFrameCache {
+
+  private static final int DEFAULT_MAXIMUM_SIZE = 8;
+
+  private static final SoftLruCache<Key, Image[]> cache = new SoftLruCache<>(DEFAULT_MAXIMUM_SIZE);
+
+  private AnimationFrameCache() {
+    // prevent instantiation
+  }
+
+  /**
+   * Returns the frames of the GIF animation at the given resource, scaled by the given factor. The frames are decoded
+   * and scaled only on the first request.
+   *
+   * @param resource the GIF resource
+   * @param scale    the scale factor applied to the frames, 1.0 for the original size
+   * @return the frames, the returned array is a copy but the images are shared and must not be modified
+   * @throws IOException if the GIF can not be read
+   */
+  public static Image[] getFrames(URL resource, double scale) throws IOException {
+    if (scale <= 0) {
+      throw new IllegalArgumentException("scale must be greater than 0");
+    }
+    Key key = new Key(Objects.requireNonNull(resource, "resource must not be null"), scale);
+    Image[] frames = cache.get(key);
+    if (frames == null) {
+      frames = cache.putIfAbsent(key, loadFrames(resource, scale));
+    }
+    return frames.clone();
+  }
+
+  /**
+   * Sets the maximum number of animations kept in the cache.
+   *
+   * @param maximumSize the maximum number of animations, must be positive
+   */
+  public static void setMaximumSize(int maximumSize) {
+    cache.setMaximumSize(maximumSize);
+  }
+
+  /**
+   * Returns the number of animations currently kept in the cache.
+   *
+   * @return the number of animations
+   */
+  public static int size() {
+    return cache.size();
+  }
+
+  /**
+   * Removes all animations from the cache.
+   */
+  public static void clear() {
+    cache.clear();
+  }
+
+  private static Image[] loadFrames(URL resource, double scale) throws IOException {
+    Image[] frames;
+    try (InputStream inputStream = resource.openStream()) {
+      frames = ImageUtils.loadFramesFromGif(ImageIO.createImageInputStream(inputStream));
+    }
+    if (scale != 1.0) {
+      for (int i = 0; i < frames.length; i++) {
+        frames[i] = scale(frames[i], scale);
+      }
+    }
+    return frames;
+  }
+
+  private static BufferedImage scale(Image frame, double scale) {
+    int width = Math.max(1, (int) Math.round(frame.getWidth(null) * scale));
+    int height = Math.max(1, (int) Math.round(frame.getHeight(null) * scale));
+    // area averaging gives smooth results also for strong down-scaling, it is slow but only done once
+    Image scaled = frame.getScaledInstance(width, height, Image.SCALE_AREA_AVERAGING);
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.drawImage(scaled, 0, 0, null);
+    graphics.dispose();
+    return image;
+  }
+
+  private static final class Key {
+
+    private final String uri;
+    private final double scale;
+
+    private Key(URL resource, double scale) {
+      this.uri = resource.toExternalForm();
+      this.scale = scale;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return Double.compare(scale, other.scale) == 0 && uri.equals(other.uri);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(uri, scale);
+    }
+  }
+}
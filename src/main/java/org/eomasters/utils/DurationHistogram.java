@@ -0,0 +1,86 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the durations of all finished runs of the tasks with the same ID. The durations are counted
+ * in buckets with exponentially growing upper bounds: 1 ms, 2 ms, 4 ms, ... The last bucket counts all durations
+ * exceeding the upper bound of the previous bucket.
+ */
+public class DurationHistogram {
+
+  private final String taskID;
+  private final long count;
+  private final long minMillis;
+  private final long maxMillis;
+  private final double meanMillis;
+  private final long[] bucketUpperBoundsMillis;
+  private final long[] bucketCounts;
+
+  DurationHistogram(String taskID, long count, long minMillis, long maxMillis, double meanMillis,
+      long[] bucketUpperBoundsMillis, long[] bucketCounts) {
+    this.taskID = taskID;
+    this.count = count;
+    this.minMillis = minMillis;
+    this.maxMillis = maxMillis;
+    this.meanMillis = meanMillis;
+    this.bucketUpperBoundsMillis = bucketUpperBoundsMillis;
+    this.bucketCounts = bucketCounts;
+  }
+
+  public String getTaskID() {
+    return taskID;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getMinMillis() {
+    return minMillis;
+  }
+
+  public long getMaxMillis() {
+    return maxMillis;
+  }
+
+  public double getMeanMillis() {
+    return meanMillis;
+  }
+
+  /**
+   * Returns the inclusive upper bounds of the buckets. The last bucket has no upper bound and is reported as
+   * {@link Long#MAX_VALUE}.
+   *
+   * @return the upper bounds in milliseconds
+   */
+  public long[] getBucketUpperBoundsMillis() {
+    return bucketUpperBoundsMillis.clone();
+  }
+
+  public long[] getBucketCounts() {
+    return bucketCounts.clone();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %d runs, min %d ms, max %d ms, mean %.1f ms, buckets %s",
+        taskID, count, minMillis, maxMillis, meanMillis, Arrays.toString(bucketCounts));
+  }
+}
@@ -0,0 +1,256 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.utils;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import org.w3c.dom.Node;
+
+/**
+ * Decodes the frames of an animated GIF on demand. Only a few composed frames are kept in a ring buffer, so the memory
+ * needed does not grow with the length of the animation. The frames are composed as specified by the GIF format: each
+ * frame is drawn at its position onto the previous frames, after the previous frame has been disposed according to
+ * its disposal method.
+ *
+ * <p>Frames are decoded sequentially. Accessing the frames in order, as an animation does, decodes each frame once per
+ * cycle. Going back to a frame which is no longer buffered restarts the decoding at the first frame.
+ */
+public class GifFrameSource implements AutoCloseable {
+
+  /**
+   * The delay used for frames which do not specify a delay.
+   */
+  public static final int DEFAULT_DELAY_MILLIS = 100;
+
+  private static final String IMAGE_METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+  private static final String STREAM_METADATA_FORMAT = "javax_imageio_gif_stream_1.0";
+  private static final int DEFAULT_BUFFER_SIZE = 4;
+
+  private final ImageInputStream inputStream;
+  private final ImageReader reader;
+  private final int frameCount;
+  private final FrameInfo[] frameInfos;
+  private final BufferedImage[] ringBuffer;
+  private final BufferedImage canvas;
+  private BufferedImage restoreImage;
+  // index of the frame currently drawn on the canvas, -1 if the canvas is empty
+  private int canvasFrame = -1;
+
+  /**
+   * Creates a frame source with the default buffer size.
+   *
+   * @param inputStream the stream to read the GIF from, closed when this source is closed
+   * @throws IOException if the GIF can not be read
+   */
+  public GifFrameSource(ImageInputStream inputStream) throws IOException {
+    this(inputStream, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a frame source.
+   *
+   * @param inputStream the stream to read the GIF from, closed when this source is closed
+   * @param bufferSize  the number of composed frames kept in memory
+   * @throws IOException if the GIF can not be read
+   */
+  public GifFrameSource(ImageInputStream inputStream, int bufferSize) throws IOException {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("bufferSize must be greater than 0");
+    }
+    Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("gif");
+    if (!readers.hasNext()) {
+      throw new IOException("No GIF image reader available");
+    }
+    this.inputStream = inputStream;
+    reader = readers.next();
+    reader.setInput(inputStream, false, false);
+    // scanning the stream for the number of frames is expensive, therefore done only once
+    frameCount = reader.getNumImages(true);
+    if (frameCount <= 0) {
+      throw new IOException("GIF does not contain any frame");
+    }
+    Node screenDescriptor = getChild(reader.getStreamMetadata(), STREAM_METADATA_FORMAT, "LogicalScreenDescriptor");
+    int width = screenDescriptor != null ? getIntAttribute(screenDescriptor, "logicalScreenWidth", 0) : 0;
+    int height = screenDescriptor != null ? getIntAttribute(screenDescriptor, "logicalScreenHeight", 0) : 0;
+    frameInfos = new FrameInfo[frameCount];
+    ringBuffer = new BufferedImage[Math.min(bufferSize, frameCount)];
+    int canvasWidth = width > 0 ? width : reader.getWidth(0);
+    int canvasHeight = height > 0 ? height : reader.getHeight(0);
+    canvas = new BufferedImage(canvasWidth, canvasHeight, BufferedImage.TYPE_INT_ARGB);
+  }
+
+  /**
+   * Returns the number of frames. The number is determined once when the source is created.
+   *
+   * @return the number of frames
+   */
+  public int getFrameCount() {
+    return frameCount;
+  }
+
+  public int getWidth() {
+    return canvas.getWidth();
+  }
+
+  public int getHeight() {
+    return canvas.getHeight();
+  }
+
+  /**
+   * Returns the time the frame with the given index shall be shown.
+   *
+   * @param index the index of the frame
+   * @return the delay in milliseconds, {@link #DEFAULT_DELAY_MILLIS} if the frame does not specify a delay
+   * @throws IOException if the metadata of the frame can not be read
+   */
+  public synchronized int getDelay(int index) throws IOException {
+    return getFrameInfo(index).delayMillis;
+  }
+
+  /**
+   * Returns the composed frame with the given index. The returned image is not changed afterwards and can be kept by
+   * the caller.
+   *
+   * @param index the index of the frame
+   * @return the frame
+   * @throws IOException if the frame can not be decoded
+   */
+  public synchronized BufferedImage getFrame(int index) throws IOException {
+    if (index < 0 || index >= frameCount) {
+      throw new IndexOutOfBoundsException("Frame index " + index + " out of range [0," + frameCount + ")");
+    }
+    int slot = index % ringBuffer.length;
+    if (index <= canvasFrame && canvasFrame - index < ringBuffer.length && ringBuffer[slot] != null) {
+      return ringBuffer[slot];
+    }
+    if (index < canvasFrame) {
+      resetCanvas();
+    }
+    while (canvasFrame < index) {
+      composeNextFrame();
+    }
+    return ringBuffer[slot];
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    reader.dispose();
+    inputStream.close();
+  }
+
+  private void resetCanvas() {
+    Graphics2D graphics = canvas.createGraphics();
+    graphics.setComposite(AlphaComposite.Clear);
+    graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    graphics.dispose();
+    restoreImage = null;
+    canvasFrame = -1;
+  }
+
+  private void composeNextFrame() throws IOException {
+    if (canvasFrame >= 0) {
+      disposeFrame(getFrameInfo(canvasFrame));
+    }
+    int index = canvasFrame + 1;
+    FrameInfo info = getFrameInfo(index);
+    if ("restoreToPrevious".equals(info.disposalMethod)) {
+      restoreImage = copy(canvas);
+    }
+    Graphics2D graphics = canvas.createGraphics();
+    graphics.drawImage(reader.read(index), info.x, info.y, null);
+    graphics.dispose();
+    canvasFrame = index;
+    ringBuffer[index % ringBuffer.length] = copy(canvas);
+  }
+
+  private void disposeFrame(FrameInfo info) {
+    if ("restoreToBackgroundColor".equals(info.disposalMethod)) {
+      Graphics2D graphics = canvas.createGraphics();
+      graphics.setComposite(AlphaComposite.Clear);
+      graphics.fillRect(info.x, info.y, info.width, info.height);
+      graphics.dispose();
+    } else if ("restoreToPrevious".equals(info.disposalMethod) && restoreImage != null) {
+      canvas.setData(restoreImage.getRaster());
+      restoreImage = null;
+    }
+  }
+
+  private FrameInfo getFrameInfo(int index) throws IOException {
+    if (frameInfos[index] == null) {
+      IIOMetadata metadata = reader.getImageMetadata(index);
+      Node descriptor = getChild(metadata, IMAGE_METADATA_FORMAT, "ImageDescriptor");
+      Node control = getChild(metadata, IMAGE_METADATA_FORMAT, "GraphicControlExtension");
+      FrameInfo info = new FrameInfo();
+      if (descriptor != null) {
+        info.x = getIntAttribute(descriptor, "imageLeftPosition", 0);
+        info.y = getIntAttribute(descriptor, "imageTopPosition", 0);
+        info.width = getIntAttribute(descriptor, "imageWidth", canvas.getWidth());
+        info.height = getIntAttribute(descriptor, "imageHeight", canvas.getHeight());
+      }
+      if (control != null) {
+        info.disposalMethod = control.getAttributes().getNamedItem("disposalMethod").getNodeValue();
+        int delay = getIntAttribute(control, "delayTime", 0) * 10;
+        info.delayMillis = delay > 0 ? delay : DEFAULT_DELAY_MILLIS;
+      }
+      frameInfos[index] = info;
+    }
+    return frameInfos[index];
+  }
+
+  private static BufferedImage copy(BufferedImage image) {
+    BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+    copy.setData(image.getRaster());
+    return copy;
+  }
+
+  private static Node getChild(IIOMetadata metadata, String format, String name) {
+    if (metadata == null) {
+      return null;
+    }
+    IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+    for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (name.equals(child.getNodeName())) {
+        return child;
+      }
+    }
+    return null;
+  }
+
+  private static int getIntAttribute(Node node, String name, int defaultValue) {
+    Node attribute = node.getAttributes().getNamedItem(name);
+    return attribute != null ? Integer.parseInt(attribute.getNodeValue()) : defaultValue;
+  }
+
+  private static class FrameInfo {
+
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private String disposalMethod = "none";
+    private int delayMillis = DEFAULT_DELAY_MILLIS;
+  }
+}
@@ -17,17 +17,45 @@
 
 package org.eomasters.utils;
 
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Dimension2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.net.URL;
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
 import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
 import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.BridgeException;
+import org.apache.batik.bridge.DocumentLoader;
+import org.apache.batik.bridge.GVTBuilder;
+import org.apache.batik.bridge.UserAgent;
+import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.bridge.ViewBox;
+import org.apache.batik.gvt.CanvasGraphicsNode;
+import org.apache.batik.gvt.CompositeGraphicsNode;
+import org.apache.batik.gvt.GraphicsNode;
 import org.apache.batik.gvt.renderer.ImageRenderer;
 import org.apache.batik.transcoder.TranscoderException;
 import org.apache.batik.transcoder.TranscoderInput;
@@ -35,58 +63,340 @@ import org.apache.batik.transcoder.TranscoderOutput;
 import org.apache.batik.transcoder.TranscodingHints;
 import org.apache.batik.transcoder.image.ImageTranscoder;
 import org.apache.batik.util.SVGConstants;
+import org.apache.batik.util.XMLResourceDescriptor;
+import org.w3c.dom.svg.SVGDocument;
 
 public class ImageUtils {
 
+  private static final Logger LOG = Logger.getLogger("org.eomasters");
+  private static final Map<String, SoftReference<SvgGraphic>> svgGraphics = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a translucent image in the format of the default screen, so it can be drawn without conversion. In headless
+   * mode an ARGB image is created.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @return the image
+   */
+  public static BufferedImage createCompatibleImage(int width, int height) {
+    if (GraphicsEnvironment.isHeadless()) {
+      return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+    GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                                                             .getDefaultConfiguration();
+    return configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+  }
+
+  /**
+   * Reads all frames of an animated GIF. The frames are composed according to their position and disposal method. For
+   * long animations consider using a {@link GifFrameSource}, which decodes the frames on demand.
+   *
+   * @param imageInputStream the stream to read the GIF from, closed when all frames are read
+   * @return the frames
+   * @throws IOException if the GIF can not be read
+   */
   public static Image[] loadFramesFromGif(ImageInputStream imageInputStream) throws IOException {
-    ArrayList<BufferedImage> frames = new ArrayList<>();
-    ImageReader gifReader = ImageIO.getImageReadersByFormatName("gif").next();
-    gifReader.setInput(imageInputStream);
-    int width = gifReader.getWidth(0);
-    int height = gifReader.getHeight(0);
-    for (int i = 0; i < gifReader.getNumImages(true); i++) {
-      BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-      frames.add(frame);
-      frame.getGraphics().drawImage(gifReader.read(i), 0, 0, null);
-    }
-    return frames.toArray(new Image[0]);
+    try (GifFrameSource frameSource = new GifFrameSource(imageInputStream, 1)) {
+      Image[] frames = new Image[frameSource.getFrameCount()];
+      for (int i = 0; i < frames.length; i++) {
+        frames[i] = frameSource.getFrame(i);
+      }
+      return frames;
+    }
   }
 
+  /**
+   * Loads the images of a numbered sequence, e.g. the frames of an animation. The images are read and decoded in
+   * parallel and returned in the order of their numbers. Missing images are skipped and logged.
+   *
+   * @param aClass      the class used to load the resources
+   * @param resourceStr the resource path, the character '#' is replaced by the number of the image
+   * @param start       the first number
+   * @param end         the last number, inclusive
+   * @return the images
+   */
   public static Image[] loadNumberedImages(Class<?> aClass, String resourceStr, int start, int end) {
-    ArrayList<Image> list = new ArrayList<>();
-    for (int i = start; i <= end; i++) {
-      try {
-        try (InputStream resource = aClass.getResourceAsStream(
-            resourceStr.replace("#", String.valueOf(i)))) {
-          list.add(ImageIO.read(Objects.requireNonNull(resource)));
-        }
-      } catch (IOException ignored) {
+    NumberedImages numberedImages = readNumberedImages(aClass, resourceStr, start, end, false);
+    if (!numberedImages.isComplete()) {
+      LOG.warning("Images of '" + resourceStr + "' missing or not readable: " + numberedImages.getMissingNumbers());
+    }
+    return numberedImages.getImages();
+  }
+
+  /**
+   * Loads the images of a numbered sequence, e.g. the frames of an animation. The images are read and decoded in
+   * parallel on virtual threads. Optionally, all images are packed into one sprite sheet, so that the sequence is kept
+   * in a single image raster.
+   *
+   * @param aClass      the class used to load the resources
+   * @param resourceStr the resource path, the character '#' is replaced by the number of the image
+   * @param start       the first number
+   * @param end         the last number, inclusive
+   * @param packed      whether to pack the images into a sprite sheet
+   * @return the images in the order of their numbers, together with the numbers of the missing images
+   */
+  public static NumberedImages readNumberedImages(Class<?> aClass, String resourceStr, int start, int end,
+      boolean packed) {
+    List<Future<BufferedImage>> futures = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = start; i <= end; i++) {
+        String resourcePath = resourceStr.replace("#", String.valueOf(i));
+        futures.add(executor.submit(() -> readImage(aClass, resourcePath)));
+      }
+    }
+    List<BufferedImage> images = new ArrayList<>();
+    List<Integer> missingNumbers = new ArrayList<>();
+    for (int i = 0; i < futures.size(); i++) {
+      BufferedImage image = getResult(futures.get(i));
+      if (image != null) {
+        images.add(image);
+      } else {
+        missingNumbers.add(start + i);
       }
     }
-    return list.toArray(new Image[0]);
+    if (packed && !images.isEmpty()) {
+      BufferedImage spriteSheet = createSpriteSheet(images);
+      return new NumberedImages(images.toArray(new Image[0]), missingNumbers, spriteSheet);
+    }
+    return new NumberedImages(images.toArray(new Image[0]), missingNumbers, null);
+  }
+
+  private static BufferedImage readImage(Class<?> aClass, String resourcePath) {
+    try (InputStream resource = aClass.getResourceAsStream(resourcePath)) {
+      return resource != null ? ImageIO.read(resource) : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static BufferedImage getResult(Future<BufferedImage> future) {
+    try {
+      // the executor has been closed, so all results are available
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      return null;
+    }
+  }
+
+  // packs the images in a grid and replaces them by sub-images of the sprite sheet
+  private static BufferedImage createSpriteSheet(List<BufferedImage> images) {
+    int cellWidth = images.stream().mapToInt(BufferedImage::getWidth).max().orElse(1);
+    int cellHeight = images.stream().mapToInt(BufferedImage::getHeight).max().orElse(1);
+    int columns = (int) Math.ceil(Math.sqrt(images.size()));
+    int rows = (int) Math.ceil(images.size() / (double) columns);
+    BufferedImage spriteSheet = new BufferedImage(columns * cellWidth, rows * cellHeight, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = spriteSheet.createGraphics();
+    graphics.setComposite(AlphaComposite.Src);
+    for (int i = 0; i < images.size(); i++) {
+      BufferedImage image = images.get(i);
+      int x = (i % columns) * cellWidth;
+      int y = (i / columns) * cellHeight;
+      graphics.drawImage(image, x, y, null);
+      images.set(i, spriteSheet.getSubimage(x, y, image.getWidth(), image.getHeight()));
+    }
+    graphics.dispose();
+    return spriteSheet;
   }
 
+  /**
+   * Reads the SVG image from the given stream and renders it with the given size. The transcoders are pooled and reused
+   * together with their configuration and renderer, so only the document is parsed and rendered per call.
+   *
+   * @param inputStream the stream to read the SVG from
+   * @param width       the width of the image
+   * @param height      the height of the image
+   * @return the image
+   * @throws IOException if the SVG can not be read or decoded
+   */
   public static Image loadSvgImage(InputStream inputStream, int width, int height) throws IOException {
-    SvgTranscoder transcoder = new SvgTranscoder();
-    TranscodingHints hints = new TranscodingHints();
-    hints.put(ImageTranscoder.KEY_WIDTH, (float) width);
-    hints.put(ImageTranscoder.KEY_HEIGHT, (float) height);
-    hints.put(ImageTranscoder.KEY_DOM_IMPLEMENTATION, SVGDOMImplementation.getDOMImplementation());
-    hints.put(ImageTranscoder.KEY_DOCUMENT_ELEMENT_NAMESPACE_URI, SVGConstants.SVG_NAMESPACE_URI);
-    hints.put(ImageTranscoder.KEY_DOCUMENT_ELEMENT, SVGConstants.SVG_SVG_TAG);
-    hints.put(ImageTranscoder.KEY_XML_PARSER_VALIDATING, false);
-    transcoder.setTranscodingHints(hints);
+    SvgTranscoder transcoder = SvgTranscoder.acquire();
     try {
-      transcoder.transcode(new TranscoderInput(inputStream), null);
-      return transcoder.getImage();
-    } catch (TranscoderException e) {
-      throw new IOException("SVG image can not be decoded", e);
+      return transcoder.transcode(inputStream, width, height);
+    } finally {
+      SvgTranscoder.release(transcoder);
+    }
+  }
+
+  /**
+   * Loads the SVG image from the given resource and renders it with the given size. The parsed SVG document is cached
+   * per resource, so rendering the same resource again, e.g. with another size, only costs the rasterization.
+   *
+   * @param resource the SVG resource
+   * @param width    the width of the image
+   * @param height   the height of the image
+   * @return the image
+   * @throws IOException if the SVG can not be read or decoded
+   */
+  public static Image loadSvgImage(URL resource, int width, int height) throws IOException {
+    return getSvgGraphic(resource).render(width, height);
+  }
+
+  /**
+   * Loads the SVG image from the given resource and renders it in all the given sizes. The SVG document is parsed only
+   * once and cached like in {@link #loadSvgImage(URL, int, int)}.
+   *
+   * @param resource the SVG resource
+   * @param sizes    the sizes of the quadratic images
+   * @return the images in the order of the sizes
+   * @throws IOException if the SVG can not be read or decoded
+   */
+  public static Image[] loadSvgImages(URL resource, int... sizes) throws IOException {
+    return getSvgGraphic(resource).render(sizes);
+  }
+
+  /**
+   * Reads the SVG image from the given stream and renders it in all the given sizes. The SVG document is parsed only
+   * once.
+   *
+   * @param inputStream the stream to read the SVG from
+   * @param sizes       the sizes of the quadratic images
+   * @return the images in the order of the sizes
+   * @throws IOException if the SVG can not be read or decoded
+   */
+  public static Image[] loadSvgImages(InputStream inputStream, int... sizes) throws IOException {
+    return SvgGraphic.parse(null, inputStream).render(sizes);
+  }
+
+  private static SvgGraphic getSvgGraphic(URL resource) throws IOException {
+    String uri = resource.toExternalForm();
+    SoftReference<SvgGraphic> reference = svgGraphics.get(uri);
+    SvgGraphic graphic = reference != null ? reference.get() : null;
+    if (graphic == null) {
+      try (InputStream inputStream = resource.openStream()) {
+        graphic = SvgGraphic.parse(uri, inputStream);
+      }
+      svgGraphics.put(uri, new SoftReference<>(graphic));
     }
+    return graphic;
   }
 
-  private static class SvgTranscoder extends ImageTranscoder {
+  /**
+   * The graphics tree of a parsed SVG document which can be rendered in different sizes. Mirrors what the
+   * {@link ImageTranscoder} does per call, but keeps the tree for subsequent renderings.
+   */
+  private static final class SvgGraphic {
+
+    private final BridgeContext context;
+    private final SVGDocument document;
+    private final GraphicsNode root;
+    private final float docWidth;
+    private final float docHeight;
+
+    private SvgGraphic(BridgeContext context, SVGDocument document, GraphicsNode root) {
+      this.context = context;
+      this.document = document;
+      this.root = root;
+      Dimension2D docSize = context.getDocumentSize();
+      this.docWidth = (float) docSize.getWidth();
+      this.docHeight = (float) docSize.getHeight();
+    }
+
+    static SvgGraphic parse(String uri, InputStream inputStream) throws IOException {
+      SAXSVGDocumentFactory factory = new SAXSVGDocumentFactory(XMLResourceDescriptor.getXMLParserClassName());
+      factory.setValidating(false);
+      SVGDocument document = factory.createSVGDocument(uri, inputStream);
+      UserAgent userAgent = new UserAgentAdapter();
+      BridgeContext context = new BridgeContext(userAgent, new DocumentLoader(userAgent));
+      context.setDynamicState(BridgeContext.STATIC);
+      try {
+        return new SvgGraphic(context, document, new GVTBuilder().build(context, document));
+      } catch (BridgeException e) {
+        throw new IOException("SVG image can not be decoded", e);
+      }
+    }
+
+    Image[] render(int... sizes) {
+      Image[] images = new Image[sizes.length];
+      for (int i = 0; i < sizes.length; i++) {
+        images[i] = render(sizes[i], sizes[i]);
+      }
+      return images;
+    }
+
+    // the viewing transform of the tree is changed for each rendering, therefore synchronized
+    synchronized BufferedImage render(int width, int height) {
+      AffineTransform transform = ViewBox.getViewTransform(null, document.getRootElement(), width, height, context);
+      if (transform.isIdentity() && (width != docWidth || height != docHeight)) {
+        double scale = Math.min(width / docWidth, height / docHeight);
+        transform = AffineTransform.getScaleInstance(scale, scale);
+      }
+      CanvasGraphicsNode canvas = getCanvasGraphicsNode(root);
+      if (canvas != null) {
+        canvas.setViewingTransform(transform);
+        transform = new AffineTransform();
+      }
+      BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D graphics = image.createGraphics();
+      graphics.setRenderingHints(SvgTranscoder.RENDERING_HINTS);
+      graphics.transform(transform);
+      root.paint(graphics);
+      graphics.dispose();
+      return image;
+    }
+
+    private static CanvasGraphicsNode getCanvasGraphicsNode(GraphicsNode node) {
+      if (!(node instanceof CompositeGraphicsNode)) {
+        return null;
+      }
+      List<?> children = ((CompositeGraphicsNode) node).getChildren();
+      if (children.isEmpty() || !(children.get(0) instanceof CanvasGraphicsNode)) {
+        return null;
+      }
+      return (CanvasGraphicsNode) children.get(0);
+    }
+  }
+
+  /**
+   * Transcoder rendering SVG documents into images. The instances are pooled, because creating and configuring a
+   * transcoder and its renderer is expensive compared to rendering small icons. An instance is used by one thread at a
+   * time.
+   */
+  static class SvgTranscoder extends ImageTranscoder {
+
+    private static final RenderingHints RENDERING_HINTS = createRenderingHints();
+    private static final int MAX_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final Deque<SvgTranscoder> pool = new ConcurrentLinkedDeque<>();
 
     private BufferedImage image = null;
+    private ImageRenderer renderer;
+
+    SvgTranscoder() {
+      TranscodingHints hints = new TranscodingHints();
+      hints.put(ImageTranscoder.KEY_DOM_IMPLEMENTATION, SVGDOMImplementation.getDOMImplementation());
+      hints.put(ImageTranscoder.KEY_DOCUMENT_ELEMENT_NAMESPACE_URI, SVGConstants.SVG_NAMESPACE_URI);
+      hints.put(ImageTranscoder.KEY_DOCUMENT_ELEMENT, SVGConstants.SVG_SVG_TAG);
+      hints.put(ImageTranscoder.KEY_XML_PARSER_VALIDATING, false);
+      setTranscodingHints(hints);
+    }
+
+    static SvgTranscoder acquire() {
+      SvgTranscoder transcoder = pool.pollFirst();
+      return transcoder != null ? transcoder : new SvgTranscoder();
+    }
+
+    static void release(SvgTranscoder transcoder) {
+      // the image is handed out to the caller and must not be kept
+      transcoder.image = null;
+      // not exact under contention, but keeps the pool roughly bounded
+      if (pool.size() < MAX_POOL_SIZE) {
+        pool.offerFirst(transcoder);
+      }
+    }
+
+    BufferedImage transcode(InputStream inputStream, int width, int height) throws IOException {
+      addTranscodingHint(ImageTranscoder.KEY_WIDTH, (float) width);
+      addTranscodingHint(ImageTranscoder.KEY_HEIGHT, (float) height);
+      try {
+        transcode(new TranscoderInput(inputStream), null);
+        return image;
+      } catch (TranscoderException e) {
+        throw new IOException("SVG image can not be decoded", e);
+      }
+    }
 
     public BufferedImage createImage(int w, int h) {
       image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
@@ -95,14 +405,23 @@ public class ImageUtils {
 
     @Override
     protected ImageRenderer createRenderer() {
-      ImageRenderer renderer = super.createRenderer();
-      RenderingHints hints = renderer.getRenderingHints();
+      // the renderer adapts its off-screen buffer to the size of each rendering and can be reused
+      if (renderer == null) {
+        renderer = super.createRenderer();
+        RenderingHints hints = renderer.getRenderingHints();
+        hints.add(RENDERING_HINTS);
+        renderer.setRenderingHints(hints);
+      }
+      return renderer;
+    }
+
+    private static RenderingHints createRenderingHints() {
+      RenderingHints hints = new RenderingHints(null);
       hints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY); // Not a big difference
       hints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
       hints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
       hints.put(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
-      renderer.setRenderingHints(hints);
-      return renderer;
+      return hints;
     }
 
     public void writeImage(BufferedImage img, TranscoderOutput out) {
@@ -0,0 +1,72 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.utils;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * The result of loading a numbered image sequence with
+ * {@link ImageUtils#readNumberedImages(Class, String, int, int, boolean)}. Contains the loaded images in the order of
+ * their numbers and the numbers of the images which could not be loaded.
+ */
+public class NumberedImages {
+
+  private final Image[] images;
+  private final List<Integer> missingNumbers;
+  private final BufferedImage spriteSheet;
+
+  NumberedImages(Image[] images, List<Integer> missingNumbers, BufferedImage spriteSheet) {
+    this.images = images;
+    this.missingNumbers = List.copyOf(missingNumbers);
+    this.spriteSheet = spriteSheet;
+  }
+
+  /**
+   * Returns the loaded images in the order of their numbers. Missing images are skipped.
+   *
+   * @return the images
+   */
+  public Image[] getImages() {
+    return images.clone();
+  }
+
+  /**
+   * Returns the numbers of the images which are missing or could not be decoded.
+   *
+   * @return the missing numbers in ascending order
+   */
+  public List<Integer> getMissingNumbers() {
+    return missingNumbers;
+  }
+
+  public boolean isComplete() {
+    return missingNumbers.isEmpty();
+  }
+
+  /**
+   * Returns the sprite sheet containing all images, if they were packed. The images are then sub-images sharing the
+   * data of the sprite sheet.
+   *
+   * @return the sprite sheet or {@code null} if the images are not packed
+   */
+  public BufferedImage getSpriteSheet() {
+    return spriteSheet;
+  }
+}
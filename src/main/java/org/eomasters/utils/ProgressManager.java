@@ -17,18 +17,38 @@
 
 package org.eomasters.utils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.TreeMap;
-
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Registry of the currently running {@link ProgressTask}s and the listeners interested in their progress. All methods
+ * can be called concurrently from any thread. Listeners are kept in copy-on-write lists, so notifying them does not
+ * need any locking and listeners can be added or removed while events are fired.
+ *
+ * <p>By default, events are delivered synchronously on the thread reporting the work. If work is reported in tight
+ * loops, {@link #setEventThrottling(int, Executor)} can be used to coalesce the progress events per task and to deliver
+ * them at a limited rate on a dedicated executor.
+ */
 public class ProgressManager {
 
   public static final int UNDEFINED_PROGRESS = -1;
   private static final String GENERAL_LISTENER_ID = "";
   private static final ProgressManager instance = new ProgressManager();
-  private final TreeMap<String, ProgressTask> tasks = new TreeMap<>();
-  private final HashMap<String, List<ProgressListener>> listenerMap = new HashMap<>();
+  private final ConcurrentMap<String, ProgressTask> tasks = new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<String, List<ProgressListener>> listenerMap = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ProgressTask> parentTasks = new ConcurrentHashMap<>();
+  private volatile EventThrottle eventThrottle;
 
   private ProgressManager() {
     // prevent instantiation
@@ -37,18 +57,38 @@ public class ProgressManager {
   public static ProgressTask registerTask(String taskID, int amount) {
     ProgressTask task = new ProgressTask(taskID, amount);
     instance.tasks.put(taskID, task);
+    ProgressTask parent = instance.parentTasks.get(taskID);
+    if (parent != null) {
+      task.setParent(parent);
+    }
     return task;
   }
 
+  static void registerSubTask(ProgressTask parent, String subTaskID) {
+    instance.parentTasks.put(subTaskID, parent);
+    ProgressTask subTask = instance.tasks.get(subTaskID);
+    if (subTask != null) {
+      subTask.setParent(parent);
+    }
+  }
+
+  static ProgressTask getTask(String taskID) {
+    return instance.tasks.get(taskID);
+  }
+
   public static void worked(String taskID, int steps) {
     ProgressTask task = instance.tasks.get(taskID);
-    task.worked(steps);
+    if (task != null) {
+      task.worked(steps);
+    }
   }
 
   public static void worked(String taskID, String title, int steps) {
     ProgressTask task = instance.tasks.get(taskID);
-    task.setTitle(title);
-    task.worked(steps);
+    if (task != null) {
+      task.setTitle(title);
+      task.worked(steps);
+    }
   }
 
   public static int getProgress(String taskID) {
@@ -64,7 +104,9 @@ public class ProgressManager {
     try (ProgressTask remove = instance.tasks.remove(taskID)) {
       if (remove != null) {
         instance.listenerMap.remove(taskID);
+        instance.parentTasks.remove(taskID);
         remove.getSubTasks().forEach(instance.listenerMap::remove);
+        remove.getSubTasks().forEach(instance.parentTasks::remove);
         remove.getSubTasks().forEach(ProgressManager::done);
       }
     }
@@ -75,7 +117,7 @@ public class ProgressManager {
   }
 
   public static void addProgressListener(String taskID, ProgressListener progressListener) {
-    List<ProgressListener> list = instance.listenerMap.computeIfAbsent(taskID, k -> new ArrayList<>());
+    List<ProgressListener> list = instance.listenerMap.computeIfAbsent(taskID, k -> new CopyOnWriteArrayList<>());
     list.add(progressListener);
   }
 
@@ -85,29 +127,117 @@ public class ProgressManager {
     }
   }
 
-  static void fireProgressChanged(ProgressTask task) {
-    List<ProgressListener> progressListeners = instance.listenerMap.get(task.getTaskID());
-    if (progressListeners != null) {
-      progressListeners.forEach(l -> l.onProgressChanged(task));
+  /**
+   * Enables throttled event dispatching. Progress events are coalesced per task and delivered at most
+   * {@code maxEventsPerSecond} times per second for each task. All events, including the done events, are delivered
+   * via the given executor. The done event of a task is always delivered, preceded by a pending progress event if there
+   * is one. The executor must run the events in the order they are submitted.
+   *
+   * @param maxEventsPerSecond the maximum number of progress events per second and task
+   * @param executor           the executor which delivers the events, e.g. {@code SwingUtilities::invokeLater}
+   */
+  public static void setEventThrottling(int maxEventsPerSecond, Executor executor) {
+    if (maxEventsPerSecond <= 0) {
+      throw new IllegalArgumentException("maxEventsPerSecond must be greater than 0");
     }
-    progressListeners = instance.listenerMap.get(GENERAL_LISTENER_ID);
-    if (progressListeners != null) {
-      progressListeners.forEach(l -> l.onProgressChanged(task));
+    instance.eventThrottle = new EventThrottle(maxEventsPerSecond, Objects.requireNonNull(executor));
+  }
+
+  /**
+   * Disables throttled event dispatching. Events are delivered synchronously again.
+   */
+  public static void disableEventThrottling() {
+    instance.eventThrottle = null;
+  }
+
+  static void fireProgressChanged(ProgressTask task) {
+    EventThrottle throttle = instance.eventThrottle;
+    if (throttle != null) {
+      throttle.progressChanged(task);
+    } else {
+      notifyListeners(task.getTaskID(), l -> l.onProgressChanged(task));
     }
   }
 
   static void fireTaskDone(ProgressTask task) {
-    List<ProgressListener> progressListeners = instance.listenerMap.get(task.getTaskID());
-    if (progressListeners != null) {
-      progressListeners.forEach(l -> l.onTaskDone(task));
+    EventThrottle throttle = instance.eventThrottle;
+    if (throttle != null) {
+      // the listeners of the task are deregistered when the task is done, so they are captured now
+      List<ProgressListener> taskListeners = instance.listenerMap.get(task.getTaskID());
+      List<ProgressListener> generalListeners = instance.listenerMap.get(GENERAL_LISTENER_ID);
+      throttle.taskDone(task, taskListeners, generalListeners);
+    } else {
+      notifyListeners(task.getTaskID(), l -> l.onTaskDone(task));
     }
-    progressListeners = instance.listenerMap.get(GENERAL_LISTENER_ID);
-    if (progressListeners != null) {
-      progressListeners.forEach(l -> l.onTaskDone(task));
+  }
+
+  private static void notifyListeners(String taskID, Consumer<ProgressListener> event) {
+    notifyListeners(instance.listenerMap.get(taskID), instance.listenerMap.get(GENERAL_LISTENER_ID), event);
+  }
+
+  private static void notifyListeners(List<ProgressListener> taskListeners, List<ProgressListener> generalListeners,
+      Consumer<ProgressListener> event) {
+    if (taskListeners != null) {
+      taskListeners.forEach(event);
+    }
+    if (generalListeners != null) {
+      generalListeners.forEach(event);
     }
   }
 
+  private static class EventThrottle {
 
-}
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "ProgressManager-EventThrottle");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    private final long intervalMillis;
+    private final Executor executor;
+    private final ConcurrentMap<String, ProgressTask> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
 
+    EventThrottle(int maxEventsPerSecond, Executor executor) {
+      this.intervalMillis = Math.max(1, 1000 / maxEventsPerSecond);
+      this.executor = executor;
+    }
 
+    void progressChanged(ProgressTask task) {
+      pending.put(task.getTaskID(), task);
+      if (flushScheduled.compareAndSet(false, true)) {
+        SCHEDULER.schedule(this::flush, intervalMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    void taskDone(ProgressTask task, List<ProgressListener> taskListeners, List<ProgressListener> generalListeners) {
+      // removing a pending event and handing it to the executor happens under the lock, so a progress event taken
+      // by a concurrent flush is always submitted before the done event
+      synchronized (this) {
+        boolean progressPending = pending.remove(task.getTaskID(), task);
+        executor.execute(() -> {
+          if (progressPending) {
+            notifyListeners(taskListeners, generalListeners, l -> l.onProgressChanged(task));
+          }
+          notifyListeners(taskListeners, generalListeners, l -> l.onTaskDone(task));
+        });
+      }
+    }
+
+    private void flush() {
+      flushScheduled.set(false);
+      for (Entry<String, ProgressTask> entry : pending.entrySet()) {
+        ProgressTask task = entry.getValue();
+        synchronized (this) {
+          if (pending.remove(entry.getKey(), task)) {
+            // the listeners are captured now, they are deregistered if the task is done before the event is delivered
+            List<ProgressListener> taskListeners = instance.listenerMap.get(task.getTaskID());
+            List<ProgressListener> generalListeners = instance.listenerMap.get(GENERAL_LISTENER_ID);
+            executor.execute(() -> notifyListeners(taskListeners, generalListeners, l -> l.onProgressChanged(task)));
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,287 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects metrics of the tasks registered at the {@link ProgressManager}: the throughput and estimated remaining time
+ * of the running tasks, the start and end time of the last finished run and a histogram of the durations per task ID.
+ * The metrics are available as snapshots via the static methods of this class and, while enabled, via JMX as
+ * {@value #OBJECT_NAME}.
+ */
+public final class ProgressMetrics {
+
+  /**
+   * The JMX object name of the metrics.
+   */
+  public static final String OBJECT_NAME = "org.eomasters:type=ProgressMetrics";
+
+  private static final Logger LOG = Logger.getLogger("org.eomasters");
+  private static final ProgressMetrics instance = new ProgressMetrics();
+
+  private final Map<String, RateEstimator> running = new ConcurrentSkipListMap<>();
+  private final Map<String, TaskMetrics> finished = new ConcurrentSkipListMap<>();
+  private final Map<String, DurationRecorder> durations = new ConcurrentSkipListMap<>();
+  private final MetricsListener listener = new MetricsListener();
+  private final ManagementInterface mxBean = new ManagementInterface();
+  private boolean enabled;
+
+  private ProgressMetrics() {
+    // prevent instantiation
+  }
+
+  /**
+   * Starts collecting metrics and registers the management interface at the platform MBean server.
+   */
+  public static synchronized void enable() {
+    if (instance.enabled) {
+      return;
+    }
+    instance.enabled = true;
+    ProgressManager.addProgressListener(instance.listener);
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      server.registerMBean(instance.mxBean, new ObjectName(OBJECT_NAME));
+    } catch (JMException e) {
+      LOG.log(Level.WARNING, "Not able to register progress metrics MBean", e);
+    }
+  }
+
+  /**
+   * Stops collecting metrics and unregisters the management interface. The metrics collected so far are kept.
+   */
+  public static synchronized void disable() {
+    if (!instance.enabled) {
+      return;
+    }
+    instance.enabled = false;
+    ProgressManager.removeProgressListener(instance.listener);
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+    } catch (JMException e) {
+      LOG.log(Level.WARNING, "Not able to unregister progress metrics MBean", e);
+    }
+  }
+
+  /**
+   * Returns a snapshot of the metrics of the task with the given ID. If the task is running, its current metrics are
+   * returned, otherwise the metrics of its last finished run.
+   *
+   * @param taskID the task ID
+   * @return the metrics or {@code null} if no metrics are known for the ID
+   */
+  public static TaskMetrics getSnapshot(String taskID) {
+    RateEstimator estimator = instance.running.get(taskID);
+    if (estimator != null) {
+      return estimator.snapshot();
+    }
+    return instance.finished.get(taskID);
+  }
+
+  /**
+   * Returns the snapshots of the metrics of all running tasks.
+   *
+   * @return the metrics, ordered by task ID
+   */
+  public static TaskMetrics[] getRunningTasks() {
+    return instance.running.values().stream().map(RateEstimator::snapshot).toArray(TaskMetrics[]::new);
+  }
+
+  /**
+   * Returns the snapshots of the metrics of the last finished run of each task ID.
+   *
+   * @return the metrics, ordered by task ID
+   */
+  public static TaskMetrics[] getFinishedTasks() {
+    return instance.finished.values().toArray(new TaskMetrics[0]);
+  }
+
+  /**
+   * Returns the histogram of the durations of the finished runs of the task with the given ID.
+   *
+   * @param taskID the task ID
+   * @return the histogram or {@code null} if no run of the task has finished yet
+   */
+  public static DurationHistogram getDurationHistogram(String taskID) {
+    DurationRecorder recorder = instance.durations.get(taskID);
+    return recorder != null ? recorder.snapshot(taskID) : null;
+  }
+
+  /**
+   * Returns the histograms of the durations of all task IDs.
+   *
+   * @return the histograms, ordered by task ID
+   */
+  public static DurationHistogram[] getDurationHistograms() {
+    return instance.durations.entrySet().stream()
+                             .map(e -> e.getValue().snapshot(e.getKey()))
+                             .toArray(DurationHistogram[]::new);
+  }
+
+  /**
+   * Clears all collected metrics.
+   */
+  public static void reset() {
+    instance.running.clear();
+    instance.finished.clear();
+    instance.durations.clear();
+  }
+
+  private class MetricsListener implements ProgressListener {
+
+    @Override
+    public void onProgressChanged(ProgressTask task) {
+      RateEstimator estimator = running.get(task.getTaskID());
+      if (estimator == null || estimator.task != task) {
+        // first report or a new run of a task with the same ID
+        estimator = new RateEstimator(task);
+        running.put(task.getTaskID(), estimator);
+      }
+      estimator.update();
+    }
+
+    @Override
+    public void onTaskDone(ProgressTask task) {
+      RateEstimator estimator = running.remove(task.getTaskID());
+      double rate = estimator != null && estimator.task == task ? estimator.averageRate() : 0;
+      finished.put(task.getTaskID(), new TaskMetrics(task, rate));
+      durations.computeIfAbsent(task.getTaskID(), k -> new DurationRecorder()).record(task.getDurationMillis());
+    }
+  }
+
+  private static class ManagementInterface implements ProgressMetricsMXBean {
+
+    @Override
+    public TaskMetrics[] getRunningTasks() {
+      return ProgressMetrics.getRunningTasks();
+    }
+
+    @Override
+    public TaskMetrics[] getFinishedTasks() {
+      return ProgressMetrics.getFinishedTasks();
+    }
+
+    @Override
+    public DurationHistogram[] getDurationHistograms() {
+      return ProgressMetrics.getDurationHistograms();
+    }
+
+    @Override
+    public void reset() {
+      ProgressMetrics.reset();
+    }
+  }
+
+  /**
+   * Estimates the throughput of a task as exponentially weighted moving average. Samples are taken at most every
+   * {@link #MIN_SAMPLE_INTERVAL_NANOS}, so updates in between cost only a time stamp comparison.
+   */
+  private static class RateEstimator {
+
+    private static final long MIN_SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double TIME_CONSTANT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ProgressTask task;
+    private volatile long lastSampleNanos;
+    private double lastSampleWorked;
+    private volatile double rate = Double.NaN;
+
+    RateEstimator(ProgressTask task) {
+      this.task = task;
+      this.lastSampleNanos = System.nanoTime();
+    }
+
+    void update() {
+      long now = System.nanoTime();
+      if (now - lastSampleNanos < MIN_SAMPLE_INTERVAL_NANOS) {
+        return;
+      }
+      synchronized (this) {
+        long elapsed = now - lastSampleNanos;
+        if (elapsed < MIN_SAMPLE_INTERVAL_NANOS) {
+          return;
+        }
+        double worked = task.getWorked();
+        double sampleRate = (worked - lastSampleWorked) / elapsed * TimeUnit.SECONDS.toNanos(1);
+        if (Double.isNaN(rate)) {
+          rate = sampleRate;
+        } else {
+          double alpha = 1 - Math.exp(-elapsed / TIME_CONSTANT_NANOS);
+          rate += alpha * (sampleRate - rate);
+        }
+        lastSampleWorked = worked;
+        lastSampleNanos = now;
+      }
+    }
+
+    double averageRate() {
+      long durationMillis = task.getDurationMillis();
+      return durationMillis > 0 ? task.getWorked() / durationMillis * 1000 : 0;
+    }
+
+    TaskMetrics snapshot() {
+      double current = rate;
+      return new TaskMetrics(task, Double.isNaN(current) ? averageRate() : current);
+    }
+  }
+
+  private static class DurationRecorder {
+
+    private static final int NUM_BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    void record(long millis) {
+      // bucket i counts the durations in (2^(i-1), 2^i] ms
+      int bucket = millis <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(millis - 1);
+      buckets.incrementAndGet(Math.min(bucket, NUM_BUCKETS - 1));
+      count.increment();
+      sum.add(millis);
+      min.accumulateAndGet(millis, Math::min);
+      max.accumulateAndGet(millis, Math::max);
+    }
+
+    DurationHistogram snapshot(String taskID) {
+      long[] upperBounds = new long[NUM_BUCKETS];
+      long[] counts = new long[NUM_BUCKETS];
+      for (int i = 0; i < NUM_BUCKETS; i++) {
+        upperBounds[i] = i < NUM_BUCKETS - 1 ? 1L << i : Long.MAX_VALUE;
+        counts[i] = buckets.get(i);
+      }
+      long n = count.sum();
+      double mean = n > 0 ? (double) sum.sum() / n : 0;
+      return new DurationHistogram(taskID, n, n > 0 ? min.get() : 0, n > 0 ? max.get() : 0, mean, upperBounds, counts);
+    }
+  }
+}
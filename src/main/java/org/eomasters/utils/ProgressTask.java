@@ -17,32 +17,52 @@
 
 package org.eomasters.utils;
 
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-public class ProgressTask implements AutoCloseable{
+/**
+ * A task which reports its progress to the {@link ProgressManager}. Work can be reported concurrently from any number
+ * of threads. The work counter is a {@link LongAdder}, so concurrent reporting does not contend on a single variable,
+ * and the task is finished exactly once, regardless of how many threads cross the threshold at the same time.
+ *
+ * <p>Sub-tasks push their weighted progress to their parent whenever it changes. The counter of a task therefore
+ * always contains the progress of its whole sub-task tree, and {@link #getProgress()} is a constant time read which is
+ * independent of the number and depth of the sub-tasks.
+ *
+ * <p>A task can be cancelled with {@link #cancel()}. The cancellation cascades to the sub-tasks. Long-running work
+ * should check {@link #isCancelled()} regularly or call {@link #checkCancelled()}, and can register handlers with
+ * {@link #whenCancelled(Runnable)} to interrupt threads or cancel futures doing the work.
+ */
+public class ProgressTask implements AutoCloseable {
 
-  private final String taskID;
-  private String title;
-  private final float totalWork;
-  private float worked;
-  private final Map<String, Integer> subTaskIDs = new TreeMap<>();
-  private final ProgressListener subProgressListener = new ProgressListener() {
-    @Override
-    public void onProgressChanged(ProgressTask task) {
-      ProgressManager.fireProgressChanged(ProgressTask.this);
-    }
+  // fixed point resolution of the work counter, allows sub-tasks to contribute fractions of a parent work step
+  private static final long UNITS_PER_STEP = 1 << 16;
 
-    @Override
-    public void onTaskDone(ProgressTask task) {
-      Integer subWorked = subTaskIDs.remove(task.getTaskID());
-      worked += subWorked;
-    }
-  };
-  private boolean done;
-  private Runnable runnable;
+  private final String taskID;
+  private volatile String title;
+  private final long totalWork;
+  private final LongAdder workedUnits = new LongAdder();
+  private final Map<String, Integer> subTaskIDs = new ConcurrentSkipListMap<>();
+  private final AtomicLong unitsReportedToParent = new AtomicLong();
+  private volatile ProgressTask parent;
+  private volatile int parentWorkSteps;
+  private final AtomicBoolean done = new AtomicBoolean(false);
+  private final AtomicBoolean cancelled = new AtomicBoolean(false);
+  private final AtomicBoolean failed = new AtomicBoolean(false);
+  private final List<Runnable> cancellationHandlers = new CopyOnWriteArrayList<>();
+  private final long startTime = System.currentTimeMillis();
+  private final long startNanos = System.nanoTime();
+  private volatile long endTime = -1;
+  private volatile long endNanos;
+  private volatile Runnable runnable;
 
   ProgressTask(String taskID, int totalWork) {
     if (taskID == null || taskID.isEmpty()) {
@@ -66,7 +86,7 @@ public class ProgressTask implements AutoCloseable{
       throw new IllegalArgumentException("parentWorkSteps must be less than or equal to work of parent task");
     }
     subTaskIDs.put(subTaskID, parentWorkSteps);
-    ProgressManager.addProgressListener(subTaskID, subProgressListener);
+    ProgressManager.registerSubTask(this, subTaskID);
     return this;
   }
 
@@ -82,6 +102,53 @@ public class ProgressTask implements AutoCloseable{
     return title;
   }
 
+  /**
+   * Returns the total number of work steps of this task.
+   *
+   * @return the total work or {@link ProgressManager#UNDEFINED_PROGRESS}
+   */
+  public long getTotalWork() {
+    return totalWork;
+  }
+
+  /**
+   * Returns the number of work steps done so far, including the weighted work of the sub-tasks.
+   *
+   * @return the work done
+   */
+  public double getWorked() {
+    return (double) workedUnits.sum() / UNITS_PER_STEP;
+  }
+
+  /**
+   * Returns the time this task was created.
+   *
+   * @return the start time in milliseconds since the epoch
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Returns the time this task was done.
+   *
+   * @return the end time in milliseconds since the epoch or -1 if the task is still running
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * Returns the time the task is running or, if it is done, the time it took.
+   *
+   * @return the duration in milliseconds
+   */
+  public long getDurationMillis() {
+    // endNanos is written before endTime, so it is valid once endTime is set
+    long end = endTime >= 0 ? endNanos : System.nanoTime();
+    return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+  }
+
   public Set<String> getSubTasks() {
     return subTaskIDs.keySet();
   }
@@ -95,9 +162,9 @@ public class ProgressTask implements AutoCloseable{
   }
 
   public void worked(int stepsWorked) {
-    this.worked += stepsWorked;
-    ProgressManager.fireProgressChanged(this);
-    if (totalWork != ProgressManager.UNDEFINED_PROGRESS && worked >= totalWork) {
+    workedUnits.add(stepsWorked * UNITS_PER_STEP);
+    progressChanged();
+    if (totalWork != ProgressManager.UNDEFINED_PROGRESS && workedUnits.sum() >= totalWork * UNITS_PER_STEP) {
       done();
     }
   }
@@ -106,26 +173,32 @@ public class ProgressTask implements AutoCloseable{
     if (totalWork == ProgressManager.UNDEFINED_PROGRESS) {
       return ProgressManager.UNDEFINED_PROGRESS;
     }
-    float subprogress = 0;
-    if (!subTaskIDs.isEmpty()) {
-      for (Entry<String, Integer> entry : subTaskIDs.entrySet()) {
-        int subTaskProgress = ProgressManager.getProgress(entry.getKey());
-        if (subTaskProgress != ProgressManager.UNDEFINED_PROGRESS) {
-          int parentAmount = entry.getValue();
-          subprogress += (subTaskProgress / 100f) * parentAmount;
-        }
-      }
+    if (isDone() && !isCancelled() && !isFailed()) {
+      return 100;
     }
-    return Math.min((int) ((worked + subprogress) / totalWork * 100), 100);
+    return (int) Math.min(workedUnits.sum() * 100 / (totalWork * UNITS_PER_STEP), 100);
   }
 
   public boolean isDone() {
-    return done;
+    return done.get();
   }
 
+  /**
+   * Marks this task as done, notifies the listeners and removes the task from the {@link ProgressManager}. Only the
+   * first call has an effect, subsequent calls are ignored.
+   */
   public void done() {
-    worked = totalWork;
-    this.done = true;
+    if (!done.compareAndSet(false, true)) {
+      return;
+    }
+    endNanos = System.nanoTime();
+    endTime = System.currentTimeMillis();
+    cancellationHandlers.clear();
+    pushProgressToParent();
+    ProgressTask parentTask = parent;
+    if (parentTask != null) {
+      parentTask.subTaskIDs.remove(taskID);
+    }
     ProgressManager.fireTaskDone(this);
     ProgressManager.done(taskID);
   }
@@ -134,4 +207,136 @@ public class ProgressTask implements AutoCloseable{
   public void close() {
     done();
   }
+
+  /**
+   * Cancels this task and all its sub-tasks. The cancellation handlers are called and the task is done afterwards,
+   * but its progress is not added to the parent task. Only the first call has an effect, and a task which is already
+   * done can not be cancelled anymore.
+   */
+  public void cancel() {
+    if (isDone() || !cancelled.compareAndSet(false, true)) {
+      return;
+    }
+    for (Runnable handler : cancellationHandlers) {
+      // removing ensures that each handler is called once, even if it is registered concurrently
+      if (cancellationHandlers.remove(handler)) {
+        handler.run();
+      }
+    }
+    for (String subTaskID : subTaskIDs.keySet()) {
+      ProgressTask subTask = ProgressManager.getTask(subTaskID);
+      if (subTask != null) {
+        subTask.cancel();
+      }
+    }
+    done();
+  }
+
+  /**
+   * Tells whether the work of this task has failed.
+   *
+   * @return {@code true} if the task has failed
+   */
+  public boolean isFailed() {
+    return failed.get();
+  }
+
+  /**
+   * Marks this task as failed. The task is done afterwards, but like for a cancelled task its remaining work is not
+   * added to the parent task. A task which is already done can not fail anymore.
+   */
+  void fail() {
+    if (!isDone() && failed.compareAndSet(false, true)) {
+      done();
+    }
+  }
+
+  /**
+   * Tells whether this task has been cancelled. This is a cheap check which can be done in tight loops.
+   *
+   * @return {@code true} if the task is cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled.get();
+  }
+
+  /**
+   * Throws a {@link CancellationException} if this task has been cancelled.
+   *
+   * @throws CancellationException if the task is cancelled
+   */
+  public void checkCancelled() {
+    if (isCancelled()) {
+      throw new CancellationException("Task '" + taskID + "' has been cancelled");
+    }
+  }
+
+  /**
+   * Registers a handler which is called when this task is cancelled, e.g. {@code () -> future.cancel(true)} or
+   * {@code thread::interrupt}. If the task is already cancelled, the handler is called immediately.
+   *
+   * @param handler the handler
+   */
+  public void whenCancelled(Runnable handler) {
+    if (isDone() && !isCancelled()) {
+      return;
+    }
+    cancellationHandlers.add(handler);
+    if (isCancelled() && cancellationHandlers.remove(handler)) {
+      handler.run();
+    }
+  }
+
+  /**
+   * Connects this task to its parent. Called by the {@link ProgressManager} when either the task is registered or the
+   * parent declares it as sub-task, whatever happens last.
+   */
+  void setParent(ProgressTask parent) {
+    Integer steps = parent.subTaskIDs.get(taskID);
+    if (steps == null) {
+      return;
+    }
+    this.parentWorkSteps = steps;
+    this.parent = parent;
+    if (parent.isCancelled()) {
+      cancel();
+    } else {
+      pushProgressToParent();
+    }
+  }
+
+  private void progressChanged() {
+    ProgressManager.fireProgressChanged(this);
+    pushProgressToParent();
+  }
+
+  private void pushProgressToParent() {
+    ProgressTask parentTask = parent;
+    if (parentTask == null || parentTask.isDone() || isCancelled() || isFailed()) {
+      return;
+    }
+    long contribution = getContributionToParent();
+    long reported;
+    do {
+      reported = unitsReportedToParent.get();
+      if (contribution <= reported) {
+        // progress only grows, a smaller value was computed from an outdated state
+        return;
+      }
+    } while (!unitsReportedToParent.compareAndSet(reported, contribution));
+    parentTask.workedUnits.add(contribution - reported);
+    parentTask.progressChanged();
+  }
+
+  private long getContributionToParent() {
+    long parentUnits = parentWorkSteps * UNITS_PER_STEP;
+    if (isDone()) {
+      return parentUnits;
+    }
+    if (totalWork == ProgressManager.UNDEFINED_PROGRESS) {
+      return 0;
+    }
+    double fraction = Math.min((double) workedUnits.sum() / (totalWork * UNITS_PER_STEP), 1.0);
+    return Math.round(fraction * parentUnits);
+  }
 }
@@ -0,0 +1,253 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the work of a {@link ProgressTask} as a tree of sub-tasks on virtual threads. Each piece of work gets a
+ * {@link Scope} which can fork sub-tasks. Forked sub-tasks are registered at the {@link ProgressManager} with their
+ * weight in the parent task, so their progress is reported without further wiring.
+ *
+ * <p>The execution is structured: the work of a scope is only complete when all its forked sub-tasks are complete. If
+ * a sub-task fails, all its siblings are cancelled by interrupting their threads, and the failure is propagated to the
+ * parent scope and finally to the caller. Failed tasks are marked with {@link ProgressTask#isFailed()} and only the
+ * work they actually did is credited to their parent. Cancelling a task with {@link ProgressTask#cancel()} cancels the
+ * sub-tasks and interrupts the threads running their work.
+ *
+ * <pre>{@code
+ * ProgressTask task = ProgressManager.registerTask("import", 100);
+ * ProgressTaskRunner.run(task, scope -> {
+ *   scope.fork("import.read", 40, files.size(), sub -> files.forEach(f -> {
+ *     read(f);
+ *     sub.getTask().worked(1);
+ *   }));
+ *   scope.fork("import.index", 60, ProgressManager.UNDEFINED_PROGRESS, sub -> buildIndex());
+ * });
+ * }</pre>
+ */
+public final class ProgressTaskRunner {
+
+  private ProgressTaskRunner() {
+    // prevent instantiation
+  }
+
+  /**
+   * The work of a task or sub-task.
+   */
+  @FunctionalInterface
+  public interface Work {
+
+    /**
+     * Performs the work.
+     *
+     * @param scope the scope of the work, which provides the task to report the progress to and allows to fork
+     *              sub-tasks
+     * @throws Exception if the work fails
+     */
+    void run(Scope scope) throws Exception;
+  }
+
+  /**
+   * Runs the work of the given task and waits until it and all forked sub-tasks are complete. The task is done
+   * afterwards, or failed if the work or a sub-task failed.
+   *
+   * @param task the task
+   * @param work the work of the task
+   * @throws ExecutionException   if the work or one of the sub-tasks failed, the cause is the first failure
+   * @throws InterruptedException if the calling thread is interrupted while waiting, all sub-tasks are cancelled
+   * @throws CancellationException if the task has been cancelled
+   */
+  public static void run(ProgressTask task, Work work) throws ExecutionException, InterruptedException {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      new Scope(task, executor).execute(work);
+    } catch (ExecutionException e) {
+      task.checkCancelled();
+      throw e;
+    }
+    task.checkCancelled();
+  }
+
+  /**
+   * Creates a runnable which runs the work of the given task like {@link #run(ProgressTask, Work)}. It can be set as
+   * runnable of the task, e.g. to be executed by an {@code OverlayProgressSwingWorker}.
+   *
+   * @param task the task
+   * @param work the work of the task
+   * @return the runnable, which throws a {@link RuntimeException} if the work failed
+   */
+  public static Runnable asRunnable(ProgressTask task, Work work) {
+    return () -> {
+      try {
+        run(task, work);
+      } catch (ExecutionException e) {
+        throw new RuntimeException("Task '" + task.getTaskID() + "' failed", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (CancellationException ignored) {
+        // the task has been cancelled on purpose
+      }
+    };
+  }
+
+  /**
+   * The scope of the work of a task. Provides the task and allows to fork sub-tasks.
+   */
+  public static final class Scope {
+
+    private final ProgressTask task;
+    private final ExecutorService executor;
+    private final Queue<Fork> forks = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private Scope(ProgressTask task, ExecutorService executor) {
+      this.task = task;
+      this.executor = executor;
+    }
+
+    /**
+     * Returns the task of this scope to which the progress of the work shall be reported.
+     *
+     * @return the task
+     */
+    public ProgressTask getTask() {
+      return task;
+    }
+
+    /**
+     * Forks a sub-task and runs its work on a new virtual thread. The sub-task is declared in the task of this scope
+     * with the given weight and is registered at the {@link ProgressManager}.
+     *
+     * @param subTaskID       the ID of the sub-task, must be unique within the {@link ProgressManager}
+     * @param parentWorkSteps the work steps of the task of this scope which are represented by the sub-task
+     * @param totalWork       the total work of the sub-task or {@link ProgressManager#UNDEFINED_PROGRESS}
+     * @param work            the work of the sub-task
+     * @return the sub-task
+     */
+    public ProgressTask fork(String subTaskID, int parentWorkSteps, int totalWork, Work work) {
+      task.with(subTaskID, parentWorkSteps);
+      ProgressTask subTask = ProgressManager.registerTask(subTaskID, totalWork);
+      Scope subScope = new Scope(subTask, executor);
+      Fork fork = new Fork(subTask);
+      forks.add(fork);
+      // the work is always run, also if the fork is cancelled meanwhile, so the fork is always finished. A cancelled
+      // sub-task fails right at the start of its work
+      executor.execute(() -> {
+        fork.onStart();
+        try {
+          subScope.execute(work);
+        } catch (ExecutionException e) {
+          fail(e.getCause());
+        } catch (InterruptedException e) {
+          fail(e);
+        } finally {
+          fork.onFinish();
+        }
+      });
+      if (failure.get() != null || task.isCancelled()) {
+        fork.cancel();
+      }
+      return subTask;
+    }
+
+    private void execute(Work work) throws ExecutionException, InterruptedException {
+      task.whenCancelled(this::cancelForks);
+      try {
+        task.checkCancelled();
+        work.run(this);
+      } catch (Exception e) {
+        fail(e);
+      }
+      boolean completed = false;
+      try {
+        join();
+        completed = true;
+      } finally {
+        // only completed work is credited to the parent task
+        if (completed) {
+          task.done();
+        } else {
+          task.fail();
+        }
+      }
+    }
+
+    private void join() throws ExecutionException, InterruptedException {
+      try {
+        for (Fork fork : forks) {
+          fork.finished.await();
+        }
+      } catch (InterruptedException e) {
+        cancelForks();
+        throw e;
+      }
+      Throwable cause = failure.get();
+      if (cause != null) {
+        throw new ExecutionException(cause);
+      }
+    }
+
+    private void fail(Throwable cause) {
+      if (failure.compareAndSet(null, cause)) {
+        cancelForks();
+      }
+    }
+
+    private void cancelForks() {
+      for (Fork fork : forks) {
+        fork.cancel();
+      }
+    }
+  }
+
+  private static final class Fork {
+
+    private final ProgressTask task;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private Thread thread;
+
+    private Fork(ProgressTask task) {
+      this.task = task;
+    }
+
+    private synchronized void onStart() {
+      thread = Thread.currentThread();
+    }
+
+    private synchronized void onFinish() {
+      thread = null;
+      finished.countDown();
+    }
+
+    private void cancel() {
+      task.cancel();
+      // only the thread running the work of this fork is interrupted, and only while it runs the work
+      synchronized (this) {
+        if (thread != null) {
+          thread.interrupt();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache which keeps its values only softly referenced. If the maximum size is exceeded, the least recently
+ * used entries are evicted, and values can be reclaimed by the garbage collector if memory gets low. All methods are
+ * thread-safe. Values are meant to be created by the caller between {@link #get(Object)} and
+ * {@link #putIfAbsent(Object, Object)}, so expensive creation does not block other callers of the cache.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class SoftLruCache<K, V> {
+
+  private final Map<K, SoftReference<V>> map = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, SoftReference<V>> eldest) {
+      return size() > maximumSize;
+    }
+  };
+  private int maximumSize;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maximumSize the maximum number of entries, must be positive
+   */
+  public SoftLruCache(int maximumSize) {
+    setMaximumSize(maximumSize);
+  }
+
+  /**
+   * Returns the value of the given key.
+   *
+   * @param key the key
+   * @return the value or {@code null} if there is none or it has been reclaimed
+   */
+  public synchronized V get(K key) {
+    SoftReference<V> reference = map.get(key);
+    if (reference == null) {
+      return null;
+    }
+    V value = reference.get();
+    if (value == null) {
+      map.remove(key);
+    }
+    return value;
+  }
+
+  /**
+   * Puts the value into the cache unless another value has been put for the key meanwhile.
+   *
+   * @param key   the key
+   * @param value the value
+   * @return the value in the cache, which is the given value or the one put before
+   */
+  public synchronized V putIfAbsent(K key, V value) {
+    V present = get(key);
+    if (present != null) {
+      return present;
+    }
+    map.put(key, new SoftReference<>(value));
+    return value;
+  }
+
+  /**
+   * Sets the maximum number of entries. The least recently used entries are evicted if there are more.
+   *
+   * @param maximumSize the maximum number of entries, must be positive
+   */
+  public synchronized void setMaximumSize(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be greater than 0");
+    }
+    this.maximumSize = maximumSize;
+    Iterator<K> iterator = map.keySet().iterator();
+    while (map.size() > maximumSize && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Returns the number of entries, including entries whose values have been reclaimed but not yet removed.
+   *
+   * @return the number of entries
+   */
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public synchronized void clear() {
+    map.clear();
+  }
+}
@@ -17,6 +17,9 @@
 
 package org.eomasters.utils;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 public class SystemHelper {
 
   /**
@@ -28,4 +31,25 @@ public class SystemHelper {
     return java.lang.System.getProperty("java.awt.headless", "false").equals("true");
   }
 
+  /**
+   * Returns the platform specific directory for user specific cache files. This is {@code %LOCALAPPDATA%} on Windows,
+   * {@code ~/Library/Caches} on macOS and {@code $XDG_CACHE_HOME} or {@code ~/.cache} on other systems. The directory
+   * might not exist yet.
+   *
+   * @return the cache directory
+   */
+  public static Path getUserCacheDir() {
+    String userHome = System.getProperty("user.home");
+    String osName = System.getProperty("os.name", "").toLowerCase();
+    if (osName.startsWith("windows")) {
+      String localAppData = System.getenv("LOCALAPPDATA");
+      return localAppData != null ? Paths.get(localAppData) : Paths.get(userHome, "AppData", "Local");
+    }
+    if (osName.startsWith("mac")) {
+      return Paths.get(userHome, "Library", "Caches");
+    }
+    String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+    return xdgCacheHome != null && !xdgCacheHome.isEmpty() ? Paths.get(xdgCacheHome) : Paths.get(userHome, ".cache");
+  }
+
 }
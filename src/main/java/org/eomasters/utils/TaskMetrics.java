@@ -0,0 +1,119 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+/**
+ * An immutable snapshot of the metrics of a {@link ProgressTask}.
+ */
+public class TaskMetrics {
+
+  private final String taskID;
+  private final String title;
+  private final long totalWork;
+  private final double worked;
+  private final int progress;
+  private final long startTime;
+  private final long endTime;
+  private final long durationMillis;
+  private final double stepsPerSecond;
+  private final long etaMillis;
+
+  TaskMetrics(ProgressTask task, double stepsPerSecond) {
+    this.taskID = task.getTaskID();
+    this.title = task.getTitle();
+    this.totalWork = task.getTotalWork();
+    this.worked = task.getWorked();
+    this.progress = task.getProgress();
+    this.startTime = task.getStartTime();
+    this.endTime = task.getEndTime();
+    this.durationMillis = task.getDurationMillis();
+    this.stepsPerSecond = stepsPerSecond;
+    if (task.isDone()) {
+      this.etaMillis = 0;
+    } else if (totalWork == ProgressManager.UNDEFINED_PROGRESS || stepsPerSecond <= 0) {
+      this.etaMillis = -1;
+    } else {
+      this.etaMillis = Math.round(Math.max(totalWork - worked, 0) / stepsPerSecond * 1000);
+    }
+  }
+
+  public String getTaskID() {
+    return taskID;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public long getTotalWork() {
+    return totalWork;
+  }
+
+  public double getWorked() {
+    return worked;
+  }
+
+  public int getProgress() {
+    return progress;
+  }
+
+  /**
+   * Returns the start time of the task.
+   *
+   * @return the start time in milliseconds since the epoch
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Returns the end time of the task.
+   *
+   * @return the end time in milliseconds since the epoch or -1 if the task was still running
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  /**
+   * Returns the throughput of the task as moving average over the recent progress reports.
+   *
+   * @return the work steps per second
+   */
+  public double getStepsPerSecond() {
+    return stepsPerSecond;
+  }
+
+  /**
+   * Returns the estimated remaining time, based on the moving average throughput.
+   *
+   * @return the estimated time until the task is done in milliseconds or -1 if it can not be estimated
+   */
+  public long getEtaMillis() {
+    return etaMillis;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %d%% (%.1f/%d steps, %.1f steps/s, ETA %d ms, %d ms elapsed)",
+        taskID, progress, worked, totalWork, stepsPerSecond, etaMillis, durationMillis);
+  }
+}
@@ -0,0 +1,84 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.gui;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClipboardTableParserTest {
+
+  @Test
+  void testParseTabSeparated() {
+    List<String[]> rows = ClipboardTableParser.parse("a\tb\r\nc\t\n\td\n", '\t');
+    assertEquals(3, rows.size());
+    assertArrayEquals(new String[]{"a", "b"}, rows.get(0));
+    assertArrayEquals(new String[]{"c", ""}, rows.get(1));
+    assertArrayEquals(new String[]{"", "d"}, rows.get(2));
+  }
+
+  @Test
+  void testParseQuotedFields() {
+    List<String[]> rows = ClipboardTableParser.parse("\"a,b\",\"say \"\"hi\"\"\"\n\"line1\nline2\",x", ',');
+    assertEquals(2, rows.size());
+    assertArrayEquals(new String[]{"a,b", "say \"hi\""}, rows.get(0));
+    assertArrayEquals(new String[]{"line1\nline2", "x"}, rows.get(1));
+  }
+
+  @Test
+  void testParseEmptyText() {
+    assertTrue(ClipboardTableParser.parse("", '\t').isEmpty());
+  }
+
+  @Test
+  void testDetectDelimiter() {
+    assertEquals('\t', ClipboardTableParser.detectDelimiter("a,b\tc", true));
+    assertEquals(',', ClipboardTableParser.detectDelimiter("a,b\nc\td", true));
+    assertEquals(',', ClipboardTableParser.detectDelimiter("\"a\tb\",c", false));
+    assertEquals(',', ClipboardTableParser.detectDelimiter("a,\"b\"", false));
+    assertEquals('\t', ClipboardTableParser.detectDelimiter("a", true));
+    // spreadsheet cells containing commas are not split by default
+    assertEquals('\t', ClipboardTableParser.detectDelimiter("Hello, world", false));
+    assertEquals('\t', ClipboardTableParser.detectDelimiter("1,5\n2,5", false));
+    assertEquals('\t', ClipboardTableParser.detectDelimiter("\"Hello, world\"", false));
+  }
+
+  @Test
+  void testCountLines() {
+    assertEquals(1, ClipboardTableParser.countLines("a"));
+    assertEquals(3, ClipboardTableParser.countLines("a\r\nb\rc"));
+    assertEquals(2, ClipboardTableParser.countLines("a\n"));
+  }
+
+  @Test
+  void testConvert() {
+    assertEquals(42, ClipboardTableParser.convert(" 42 ", Integer.class));
+    assertEquals(42L, ClipboardTableParser.convert("42", Long.class));
+    assertEquals(1.5f, ClipboardTableParser.convert("1.5", Float.class));
+    assertEquals(1.5, ClipboardTableParser.convert("1.5", Double.class));
+    assertEquals("1.5", ClipboardTableParser.convert("1.5", String.class));
+    assertNull(ClipboardTableParser.convert("  ", Integer.class));
+    assertNull(ClipboardTableParser.convert("", Double.class));
+    assertEquals("", ClipboardTableParser.convert("", String.class));
+    assertThrows(NumberFormatException.class, () -> ClipboardTableParser.convert("1.5", Integer.class));
+  }
+}
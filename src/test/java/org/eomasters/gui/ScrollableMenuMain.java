@@ -0,0 +1,57 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.gui;
+
+import java.awt.EventQueue;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import net.miginfocom.swing.MigLayout;
+
+public class ScrollableMenuMain {
+
+  public static void main(String[] args) {
+    EventQueue.invokeLater(() -> {
+      final JFrame frame = new JFrame("Scrollable Menu Test");
+      frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+      JPanel panel = new JPanel(new MigLayout());
+      JLabel selection = new JLabel("Nothing selected");
+
+      DefaultListModel<String> model = new DefaultListModel<>();
+      for (int i = 0; i < 50000; i++) {
+        model.addElement("Product " + i);
+      }
+      JPopupMenu popupMenu = new JPopupMenu();
+      ScrollableMenu scrollableMenu = ScrollableMenu.install(popupMenu, model, (item, product) -> item.setText(product),
+          product -> selection.setText(product + " selected"), 20);
+      scrollableMenu.setTypeAheadEnabled(true);
+      JButton button = new JButton("Products");
+      button.addActionListener(e -> popupMenu.show(button, 0, button.getHeight()));
+
+      panel.add(button);
+      panel.add(selection);
+      frame.setContentPane(panel);
+      frame.setLocation(100, 100);
+      frame.pack();
+      frame.setVisible(true);
+    });
+  }
+
+}
@@ -0,0 +1,93 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+
+class SwingDelayedTasksTest {
+
+  @Test
+  void testTasksRunInOrderOfDueTime() throws Exception {
+    List<String> order = new CopyOnWriteArrayList<>();
+    CountDownLatch finished = new CountDownLatch(4);
+    SwingUtilities.invokeAndWait(() -> {
+      schedule(order, finished, "150", 150);
+      schedule(order, finished, "50", 50);
+      schedule(order, finished, "100a", 100);
+      schedule(order, finished, "100b", 100);
+    });
+
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+    assertEquals(List.of("50", "100a", "100b", "150"), order);
+  }
+
+  @Test
+  void testCancelledTaskDoesNotRun() throws Exception {
+    List<String> order = new CopyOnWriteArrayList<>();
+    CountDownLatch finished = new CountDownLatch(1);
+    SwingDelayedTasks.DelayedTask cancelled = SwingDelayedTasks.schedule(() -> order.add("cancelled"), 20);
+    schedule(order, finished, "kept", 60);
+    cancelled.cancel();
+
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+    assertEquals(List.of("kept"), order);
+  }
+
+  @Test
+  void testFailingTaskDoesNotStopLaterTasks() throws Exception {
+    List<String> order = new CopyOnWriteArrayList<>();
+    CountDownLatch finished = new CountDownLatch(1);
+    SwingDelayedTasks.schedule(() -> {
+      throw new IllegalStateException("failed");
+    }, 10);
+    schedule(order, finished, "later", 50);
+
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+    assertEquals(List.of("later"), order);
+  }
+
+  @Test
+  void testEarlierTaskRestartsTimer() throws Exception {
+    List<String> order = new CopyOnWriteArrayList<>();
+    CountDownLatch finished = new CountDownLatch(1);
+    SwingDelayedTasks.DelayedTask late = SwingDelayedTasks.schedule(() -> order.add("late"), 60_000);
+    schedule(order, finished, "early", 20);
+    try {
+      // the timer waiting for the late task must be moved to the due time of the early task
+      assertTrue(finished.await(2, TimeUnit.SECONDS));
+      assertEquals(List.of("early"), order);
+    } finally {
+      late.cancel();
+    }
+  }
+
+  private static void schedule(List<String> order, CountDownLatch finished, String name, long delayMillis) {
+    SwingDelayedTasks.schedule(() -> {
+      assertTrue(SwingUtilities.isEventDispatchThread());
+      order.add(name);
+      finished.countDown();
+    }, delayMillis);
+  }
+}
@@ -0,0 +1,217 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.gui;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JTable;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableModel;
+import org.junit.jupiter.api.Test;
+
+class TablePasteAdapterTest {
+
+  @Test
+  void testDefaultModelIsUpdatedWithSingleEvent() {
+    DefaultTableModel model = new DefaultTableModel(100, 5);
+    List<TableModelEvent> events = new ArrayList<>();
+    model.addTableModelListener(events::add);
+
+    TablePasteAdapter.applyValues(model, new Object[][]{{"a", "b"}, {"c", "d"}, {"e"}}, 10, 2);
+
+    assertEquals(1, events.size());
+    assertEquals(10, events.get(0).getFirstRow());
+    assertEquals(12, events.get(0).getLastRow());
+    assertEquals("a", model.getValueAt(10, 2));
+    assertEquals("b", model.getValueAt(10, 3));
+    assertEquals("d", model.getValueAt(11, 3));
+    assertEquals("e", model.getValueAt(12, 2));
+    assertNull(model.getValueAt(12, 3));
+  }
+
+  @Test
+  void testDefaultModelSubclassIsUpdatedCellByCell() {
+    List<Object> setValues = new ArrayList<>();
+    DefaultTableModel model = new DefaultTableModel(10, 3) {
+      @Override
+      public void setValueAt(Object value, int row, int column) {
+        setValues.add(value);
+        super.setValueAt(value, row, column);
+      }
+    };
+
+    assertTrue(TablePasteAdapter.applyValues(model, new Object[][]{{"a", "b"}, {"c"}}, 1, 1));
+
+    assertEquals(List.of("a", "b", "c"), setValues);
+    assertEquals("c", model.getValueAt(2, 1));
+  }
+
+  @Test
+  void testValuesNotFittingAnymoreAreNotApplied() {
+    DefaultTableModel model = new DefaultTableModel(2, 2);
+    List<TableModelEvent> events = new ArrayList<>();
+    model.addTableModelListener(events::add);
+
+    assertFalse(TablePasteAdapter.applyValues(model, new Object[][]{{"a"}, {"b"}}, 1, 0));
+    assertFalse(TablePasteAdapter.applyValues(model, new Object[][]{{"a", "b"}}, 0, 1));
+
+    assertTrue(events.isEmpty());
+    assertNull(model.getValueAt(1, 0));
+  }
+
+  @Test
+  void testBatchModelReceivesAllValues() {
+    RecordingModel model = new RecordingModel();
+    Object[][] values = {{"1", "2"}};
+
+    TablePasteAdapter.applyValues(model, values, 3, 1);
+
+    assertEquals(1, model.batches);
+    assertEquals(0, model.singleUpdates);
+  }
+
+  @Test
+  void testPreparePasteValidatesTable() throws Exception {
+    TablePasteAdapter adapter = new TablePasteAdapter(new JTable(new DefaultTableModel(3, 2)));
+
+    Object[][] values = adapter.preparePaste("a\tb\nc\td\n", 1, 0);
+    assertArrayEquals(new Object[]{"a", "b"}, values[0]);
+    assertArrayEquals(new Object[]{"c", "d"}, values[1]);
+    assertNull(adapter.preparePaste("", 0, 0));
+    assertThrows(TablePasteAdapter.PasteException.class, () -> adapter.preparePaste("a\tb\tc", 0, 0));
+    assertThrows(TablePasteAdapter.PasteException.class, () -> adapter.preparePaste("a\nb\nc", 1, 0));
+  }
+
+  @Test
+  void testPreparePasteConvertsToColumnClasses() throws Exception {
+    DefaultTableModel model = createTypedModel(5000);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      text.append(i).append(",\"text ").append(i).append(", quoted\",").append(i * 0.5).append('\n');
+    }
+    TablePasteAdapter adapter = new TablePasteAdapter(new JTable(model));
+
+    Object[][] values = adapter.preparePaste(text.toString(), 0, 0);
+
+    assertEquals(5000, values.length);
+    assertArrayEquals(new Object[]{4321, "text 4321, quoted", 2160.5}, values[4321]);
+  }
+
+  @Test
+  void testBlankNumberCellsArePastedAsNull() throws Exception {
+    TablePasteAdapter adapter = new TablePasteAdapter(new JTable(createTypedModel(3)));
+
+    Object[][] values = adapter.preparePaste("5\tx\t\n\t\t2.5", 0, 0);
+
+    assertArrayEquals(new Object[]{5, "x", null}, values[0]);
+    assertArrayEquals(new Object[]{null, "", 2.5}, values[1]);
+  }
+
+  @Test
+  void testSingleColumnWithCommasIsNotSplit() throws Exception {
+    TablePasteAdapter adapter = new TablePasteAdapter(new JTable(new DefaultTableModel(3, 1)));
+
+    Object[][] values = adapter.preparePaste("Hello, world\n1,5\n", 0, 0);
+
+    assertArrayEquals(new Object[]{"Hello, world"}, values[0]);
+    assertArrayEquals(new Object[]{"1,5"}, values[1]);
+    adapter.setCsvEnabled(true);
+    assertThrows(TablePasteAdapter.PasteException.class, () -> adapter.preparePaste("Hello, world", 0, 0));
+  }
+
+  @Test
+  void testNotEditableCellsAreReported() {
+    DefaultTableModel model = new DefaultTableModel(3, 2) {
+      @Override
+      public boolean isCellEditable(int row, int column) {
+        return column == 0 || row == 0;
+      }
+    };
+    TablePasteAdapter adapter = new TablePasteAdapter(new JTable(model));
+
+    TablePasteAdapter.PasteException exception = assertThrows(TablePasteAdapter.PasteException.class,
+        () -> adapter.preparePaste("a\tb\nc\td\ne\tf", 0, 0));
+
+    String[] lines = exception.getMessage().split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("Row 2, column 'B' is not editable.", lines[1]);
+    assertEquals("Row 3, column 'B' is not editable.", lines[2]);
+  }
+
+  @Test
+  void testPreparePasteReportsAllInvalidCells() {
+    TablePasteAdapter adapter = new TablePasteAdapter(new JTable(createTypedModel(3000)));
+    String text = "1\ta\t1.0\nx\tb\t2.0\n" + "3\tc\t3.0\n".repeat(2000) + "4\td\ty\n";
+
+    TablePasteAdapter.PasteException exception = assertThrows(TablePasteAdapter.PasteException.class,
+        () -> adapter.preparePaste(text, 0, 0));
+
+    String[] lines = exception.getMessage().split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("Row 2, column 'Int': 'x' is not a valid Integer.", lines[1]);
+    assertEquals("Row 2003, column 'Double': 'y' is not a valid Double.", lines[2]);
+  }
+
+  private static DefaultTableModel createTypedModel(int rowCount) {
+    Class<?>[] columnClasses = {Integer.class, String.class, Double.class};
+    return new DefaultTableModel(new Object[]{"Int", "Text", "Double"}, rowCount) {
+      @Override
+      public Class<?> getColumnClass(int columnIndex) {
+        return columnClasses[columnIndex];
+      }
+    };
+  }
+
+  private static class RecordingModel extends AbstractTableModel implements TablePasteAdapter.BatchTableModel {
+
+    private int batches;
+    private int singleUpdates;
+
+    @Override
+    public int getRowCount() {
+      return 10;
+    }
+
+    @Override
+    public int getColumnCount() {
+      return 3;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+      return null;
+    }
+
+    @Override
+    public void setValueAt(Object value, int rowIndex, int columnIndex) {
+      singleUpdates++;
+    }
+
+    @Override
+    public void setValuesAt(Object[][] values, int startRow, int startColumn) {
+      batches++;
+    }
+  }
+}
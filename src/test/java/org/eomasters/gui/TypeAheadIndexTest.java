@@ -0,0 +1,58 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class TypeAheadIndexTest {
+
+  @Test
+  void testPrefixMatchIsPreferred() {
+    TypeAheadIndex index = new TypeAheadIndex(new String[]{"Sentinel-2", "Landsat 8", "sentinel-1", null, "Envisat"});
+    assertEquals(2, index.find("s"));
+    assertEquals(2, index.find("SENTINEL"));
+    assertEquals(0, index.find("sentinel-2"));
+    assertEquals(1, index.find("l"));
+    assertEquals(-1, index.find(""));
+  }
+
+  @Test
+  void testSubstringMatchIsNarrowedIncrementally() {
+    TypeAheadIndex index = new TypeAheadIndex(new String[]{"Sentinel-2", "Landsat 8", "sentinel-1", "Envisat"});
+    assertEquals(1, index.find("sat"));
+    assertEquals(1, index.find("sat "));
+    assertEquals(1, index.find("sat 8"));
+    assertEquals(-1, index.find("sat 9"));
+    assertEquals(0, index.find("el-"));
+    assertEquals(2, index.find("el-1"));
+    assertEquals(3, index.find("visa"));
+  }
+
+  @Test
+  void testLargeIndex() {
+    String[] texts = new String[50000];
+    for (int i = 0; i < texts.length; i++) {
+      texts[i] = "Product " + i;
+    }
+    TypeAheadIndex index = new TypeAheadIndex(texts);
+    assertEquals(12345, index.find("product 12345"));
+    assertEquals(49999, index.find("49999"));
+    assertEquals(0, index.find("prod"));
+  }
+}
@@ -0,0 +1,96 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+
+package org.eomasters.icons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import org.junit.jupiter.api.Test;
+
+class IconAtlasGeneratorTest {
+
+  @Test
+  void testGenerate() throws Exception {
+    Path outputDir = Files.createTempDirectory("iconAtlas");
+    IconAtlasGenerator.generate(Paths.get("src/main/resources"), outputDir);
+
+    Properties index = new Properties();
+    try (InputStream inputStream = Files.newInputStream(outputDir.resolve(IconAtlas.INDEX_NAME))) {
+      index.load(inputStream);
+    }
+    for (int size : IconAtlasGenerator.SIZES) {
+      assertNotNull(index.getProperty(IconAtlas.getIndexKey("/icons/essentials/ArrowDown", size)));
+      assertNotNull(index.getProperty(IconAtlas.getIndexKey("/icons/eomasters", size)));
+    }
+
+    // raster icons are copied unchanged into the atlas
+    String[] xy = index.getProperty(IconAtlas.getIndexKey("/icons/eomasters", 32)).split(",");
+    BufferedImage atlas = ImageIO.read(outputDir.resolve(IconAtlas.getAtlasName(32)).toFile());
+    BufferedImage expected = ImageIO.read(Paths.get("src/main/resources/icons/eomasters_32.png").toFile());
+    BufferedImage actual = atlas.getSubimage(Integer.parseInt(xy[0]), Integer.parseInt(xy[1]), 32, 32);
+    for (int y = 0; y < 32; y++) {
+      for (int x = 0; x < 32; x++) {
+        assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  void testAtlasIconMatchesSourceForAtlasSize() {
+    // the atlas is generated by the build before the tests run, if the tests run without it the source is used
+    SvgIcon source = new SvgIcon("/icons/essentials/ArrowDown", Icons.class);
+    AtlasIcon icon = new AtlasIcon(source);
+    BufferedImage expected = toBufferedImage(source.createIcon(Icon.SIZE_32));
+    BufferedImage actual = toBufferedImage(icon.createIcon(Icon.SIZE_32));
+    assertEquals(32, actual.getWidth());
+    for (int y = 0; y < 32; y++) {
+      for (int x = 0; x < 32; x++) {
+        assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  void testAtlasIconFallsBackToSourceForOtherSizes() {
+    // 20 is not one of the atlas sizes, so the icon is always created by the source icon
+    assertNull(IconAtlas.getImage("/icons/essentials/ArrowDown", 20));
+    AtlasIcon icon = new AtlasIcon(new SvgIcon("/icons/essentials/ArrowDown", Icons.class));
+    assertEquals(20, icon.createIcon(20).getIconWidth());
+    assertEquals("/icons/essentials/ArrowDown", icon.getPath());
+  }
+
+  private static BufferedImage toBufferedImage(ImageIcon icon) {
+    BufferedImage image = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setComposite(AlphaComposite.Src);
+    graphics.drawImage(icon.getImage(), 0, 0, null);
+    graphics.dispose();
+    return image;
+  }
+}
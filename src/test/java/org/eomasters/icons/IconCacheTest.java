@@ -0,0 +1,153 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.icons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.MultiResolutionImage;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.ImageIcon;
+import org.junit.jupiter.api.Test;
+
+class IconCacheTest {
+
+  @Test
+  void testIconIsRenderedOnlyOnce() {
+    IconCache.clear();
+    CountingIcon icon = new CountingIcon("/test/counting");
+    ImageIcon first = icon.getImageIcon(Icon.SIZE_16);
+    ImageIcon second = icon.getImageIcon(Icon.SIZE_16);
+    assertSame(first, second);
+    assertEquals(1, icon.renderings);
+
+    ImageIcon large = icon.getImageIcon(Icon.SIZE_32);
+    assertNotSame(first, large);
+    assertEquals(32, large.getIconWidth());
+    assertEquals(2, icon.renderings);
+  }
+
+  @Test
+  void testLeastRecentlyUsedIconsAreEvicted() {
+    IconCache.clear();
+    IconCache.setMaximumSize(2);
+    try {
+      CountingIcon icon = new CountingIcon("/test/evicted");
+      icon.getImageIcon(16);
+      icon.getImageIcon(32);
+      icon.getImageIcon(16);
+      icon.getImageIcon(48);
+      assertEquals(2, IconCache.size());
+      assertEquals(3, icon.renderings);
+
+      // 16 was used more recently than 32
+      icon.getImageIcon(16);
+      assertEquals(3, icon.renderings);
+      icon.getImageIcon(32);
+      assertEquals(4, icon.renderings);
+    } finally {
+      IconCache.setMaximumSize(512);
+      IconCache.clear();
+    }
+  }
+
+  @Test
+  void testPrewarmRendersIconsInParallel() throws Exception {
+    IconCache.clear();
+    List<CountingIcon> icons = List.of(new CountingIcon("/test/prewarm1"), new CountingIcon("/test/prewarm2"));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      IconCache.prewarm(icons, new int[]{Icon.SIZE_16, Icon.SIZE_32}, executor).get();
+    } finally {
+      executor.shutdown();
+    }
+    for (CountingIcon icon : icons) {
+      assertTrue(IconCache.contains(icon, Icon.SIZE_16, 1.0));
+      assertTrue(IconCache.contains(icon, Icon.SIZE_32, 1.0));
+      icon.getImageIcon(Icon.SIZE_32);
+      assertEquals(2, icon.renderings);
+    }
+  }
+
+  @Test
+  void testResolutionVariantsAreRenderedOncePerScale() {
+    IconCache.clear();
+    CountingIcon icon = new CountingIcon("/test/hidpi");
+    MultiResolutionImage image = (MultiResolutionImage) icon.getImageIcon(Icon.SIZE_16).getImage();
+    assertEquals(1, icon.renderings);
+    assertEquals(16, image.getResolutionVariant(16, 16).getWidth(null));
+    assertEquals(1, icon.renderings);
+
+    Image variant = image.getResolutionVariant(32, 32);
+    assertEquals(32, variant.getWidth(null));
+    assertSame(variant, image.getResolutionVariant(32, 32));
+    assertEquals(24, image.getResolutionVariant(24, 24).getWidth(null));
+    assertEquals(3, icon.renderings);
+    assertEquals(3, image.getResolutionVariants().size());
+  }
+
+  @Test
+  void testUnsupportedResolutionVariantFallsBackToBaseImage() {
+    RasterIcon icon = new RasterIcon("/icons/eomasters", Icons.class);
+    MultiResolutionImage image = (MultiResolutionImage) icon.getImageIcon(Icon.SIZE_48).getImage();
+    assertEquals(100, image.getResolutionVariant(100, 100).getWidth(null));
+    assertEquals(48, image.getResolutionVariant(96, 96).getWidth(null));
+  }
+
+  @Test
+  void testIconWithAdditionIsComposedOnce() {
+    IconCache.clear();
+    CountingIcon source = new CountingIcon("/test/source");
+    CountingIcon addition = new CountingIcon("/test/addition");
+    Icon combined = source.withAddition(addition);
+    assertSame(combined, source.withAddition(addition));
+
+    ImageIcon first = combined.getImageIcon(Icon.SIZE_32);
+    assertSame(first, source.withAddition(addition).getImageIcon(Icon.SIZE_32));
+    assertEquals(32, first.getIconWidth());
+    assertEquals(1, source.renderings);
+    assertEquals(1, addition.renderings);
+  }
+
+  @Test
+  void testAllIconsAreFound() {
+    List<Icon> icons = Icons.getAll();
+    assertTrue(icons.contains(Icons.ARROW_DOWN));
+    assertTrue(icons.contains(Icons.EOMASTERS));
+  }
+
+  private static class CountingIcon extends Icon {
+
+    private int renderings;
+
+    CountingIcon(String path) {
+      super(path);
+    }
+
+    @Override
+    protected ImageIcon createIcon(int size) {
+      renderings++;
+      return new ImageIcon(new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB));
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.icons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import org.junit.jupiter.api.Test;
+
+class IconDiskCacheTest {
+
+  @Test
+  void testRenderedIconIsStoredAndReused() throws Exception {
+    Path previousDirectory = IconDiskCache.getDirectory();
+    Path directory = Files.createTempDirectory("iconCache");
+    IconDiskCache.setDirectory(directory);
+    try {
+      SvgIcon icon = new SvgIcon("/icons/essentials/ArrowDown", Icons.class);
+      icon.createIcon(Icon.SIZE_16);
+      List<Path> entries = listEntries(directory);
+      assertEquals(1, entries.size());
+      Path entry = entries.get(0);
+
+      // a replaced entry is used instead of rendering the SVG again
+      BufferedImage marker = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+      marker.setRGB(0, 0, Color.RED.getRGB());
+      ImageIO.write(marker, "png", entry.toFile());
+      assertEquals(Color.RED.getRGB(), toBufferedImage(icon.createIcon(Icon.SIZE_16)).getRGB(0, 0));
+
+      // an invalid entry is discarded and rendered again
+      Files.write(entry, new byte[]{1, 2, 3});
+      assertNotEquals(Color.RED.getRGB(), toBufferedImage(icon.createIcon(Icon.SIZE_16)).getRGB(0, 0));
+      assertEquals(16, ImageIO.read(entry.toFile()).getWidth());
+
+      icon.createIcon(Icon.SIZE_32);
+      assertEquals(2, listEntries(directory).size());
+
+      IconDiskCache.clear();
+      assertTrue(listEntries(directory).isEmpty());
+    } finally {
+      IconDiskCache.setDirectory(previousDirectory);
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  private static List<Path> listEntries(Path directory) throws Exception {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+
+  private static BufferedImage toBufferedImage(ImageIcon icon) {
+    return (BufferedImage) icon.getImage();
+  }
+}
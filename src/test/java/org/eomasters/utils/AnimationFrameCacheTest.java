@@ -0,0 +1,78 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+import org.junit.jupiter.api.Test;
+
+class AnimationFrameCacheTest {
+
+  private static final URL PROGRESS_GIF = AnimationFrameCacheTest.class.getResource("/icons/progress/progress.gif");
+  private static final URL INDEFINITE_GIF = AnimationFrameCacheTest.class.getResource(
+      "/icons/progress/indefinite.gif");
+
+  @Test
+  void testFramesAreShared() throws Exception {
+    AnimationFrameCache.clear();
+    Image[] first = AnimationFrameCache.getFrames(PROGRESS_GIF, 0.2);
+    Image[] second = AnimationFrameCache.getFrames(PROGRESS_GIF, 0.2);
+    assertNotSame(first, second);
+    assertEquals(first.length, second.length);
+    for (int i = 0; i < first.length; i++) {
+      assertSame(first[i], second[i]);
+    }
+    assertEquals(102, first[0].getWidth(null));
+    assertTrue(hasVisiblePixel((BufferedImage) first[first.length - 1]));
+
+    Image[] original = AnimationFrameCache.getFrames(PROGRESS_GIF, 1.0);
+    assertEquals(512, original[0].getWidth(null));
+    assertEquals(2, AnimationFrameCache.size());
+  }
+
+  @Test
+  void testLeastRecentlyUsedAnimationsAreEvicted() throws Exception {
+    AnimationFrameCache.clear();
+    AnimationFrameCache.setMaximumSize(1);
+    try {
+      Image[] progress = AnimationFrameCache.getFrames(PROGRESS_GIF, 0.1);
+      AnimationFrameCache.getFrames(INDEFINITE_GIF, 0.1);
+      assertEquals(1, AnimationFrameCache.size());
+      assertNotSame(progress[0], AnimationFrameCache.getFrames(PROGRESS_GIF, 0.1)[0]);
+    } finally {
+      AnimationFrameCache.setMaximumSize(8);
+      AnimationFrameCache.clear();
+    }
+  }
+
+  private static boolean hasVisiblePixel(BufferedImage image) {
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        if ((image.getRGB(x, y) >>> 24) != 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
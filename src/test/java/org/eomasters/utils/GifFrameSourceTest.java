@@ -0,0 +1,158 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import org.junit.jupiter.api.Test;
+
+class GifFrameSourceTest {
+
+  @Test
+  void testFramesAreComposedWithDisposal() throws Exception {
+    byte[] gif = writeGif(
+        new Frame(solid(8, 8, Color.RED), 0, 0, "none", 5),
+        new Frame(solid(2, 2, Color.BLUE), 2, 2, "restoreToBackgroundColor", 0),
+        new Frame(solid(2, 2, Color.GREEN), 5, 5, "none", 20));
+    try (GifFrameSource source = new GifFrameSource(ImageIO.createImageInputStream(new ByteArrayInputStream(gif)))) {
+      assertEquals(3, source.getFrameCount());
+      assertEquals(8, source.getWidth());
+      assertEquals(50, source.getDelay(0));
+      assertEquals(GifFrameSource.DEFAULT_DELAY_MILLIS, source.getDelay(1));
+      assertEquals(200, source.getDelay(2));
+
+      BufferedImage second = source.getFrame(1);
+      assertEquals(Color.BLUE.getRGB(), second.getRGB(2, 2));
+      assertEquals(Color.RED.getRGB(), second.getRGB(0, 0));
+
+      BufferedImage third = source.getFrame(2);
+      assertEquals(0, third.getRGB(2, 2) >>> 24);
+      assertEquals(Color.GREEN.getRGB(), third.getRGB(5, 5));
+      assertEquals(Color.RED.getRGB(), third.getRGB(0, 0));
+      // the returned frames are not changed by decoding further frames
+      assertEquals(Color.BLUE.getRGB(), second.getRGB(2, 2));
+    }
+  }
+
+  @Test
+  void testRandomAccessWithSmallBuffer() throws Exception {
+    // frame 0 is a red background, each following frame i adds a pixel of its own color at (i, 0)
+    int frameCount = 10;
+    Frame[] frames = new Frame[frameCount];
+    frames[0] = new Frame(solid(frameCount, 2, Color.RED), 0, 0, "none", 0);
+    for (int i = 1; i < frameCount; i++) {
+      frames[i] = new Frame(solid(1, 1, pixelColor(i)), i, 0, "none", 0);
+    }
+    byte[] gif = writeGif(frames);
+    try (GifFrameSource source = new GifFrameSource(ImageIO.createImageInputStream(new ByteArrayInputStream(gif)), 2)) {
+      assertEquals(frameCount, source.getFrameCount());
+      int[] indices = {0, 1, 5, 4, 5, 9, 3, 8, 2};
+      for (int index : indices) {
+        BufferedImage frame = source.getFrame(index);
+        for (int x = 0; x < frameCount; x++) {
+          int expected = x >= 1 && x <= index ? pixelColor(x).getRGB() : Color.RED.getRGB();
+          assertEquals(expected, frame.getRGB(x, 0), "frame " + index + ", pixel " + x);
+          assertEquals(Color.RED.getRGB(), frame.getRGB(x, 1), "frame " + index + ", pixel " + x);
+        }
+      }
+      assertSame(source.getFrame(3), source.getFrame(3));
+    }
+  }
+
+  @Test
+  void testLoadFramesFromGif() throws Exception {
+    byte[] gif = writeGif(
+        new Frame(solid(4, 4, Color.RED), 0, 0, "none", 0),
+        new Frame(solid(2, 2, Color.BLUE), 2, 2, "none", 0));
+    Image[] frames = ImageUtils.loadFramesFromGif(ImageIO.createImageInputStream(new ByteArrayInputStream(gif)));
+    assertEquals(2, frames.length);
+    assertEquals(Color.RED.getRGB(), ((BufferedImage) frames[0]).getRGB(3, 3));
+    assertEquals(Color.BLUE.getRGB(), ((BufferedImage) frames[1]).getRGB(3, 3));
+    assertEquals(Color.RED.getRGB(), ((BufferedImage) frames[1]).getRGB(0, 0));
+  }
+
+  private static Color pixelColor(int index) {
+    return new Color(0, index * 25, 255 - index * 25);
+  }
+
+  private static BufferedImage solid(int width, int height, Color color) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        image.setRGB(x, y, color.getRGB());
+      }
+    }
+    return image;
+  }
+
+  private static byte[] writeGif(Frame... frames) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+      writer.setOutput(imageOutputStream);
+      writer.prepareWriteSequence(null);
+      for (Frame frame : frames) {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(
+            ImageTypeSpecifier.createFromRenderedImage(frame.image), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+        IIOMetadataNode descriptor = (IIOMetadataNode) root.getElementsByTagName("ImageDescriptor").item(0);
+        descriptor.setAttribute("imageLeftPosition", String.valueOf(frame.x));
+        descriptor.setAttribute("imageTopPosition", String.valueOf(frame.y));
+        IIOMetadataNode control = (IIOMetadataNode) root.getElementsByTagName("GraphicControlExtension").item(0);
+        control.setAttribute("disposalMethod", frame.disposal);
+        control.setAttribute("delayTime", String.valueOf(frame.delay));
+        metadata.setFromTree(format, root);
+        writer.writeToSequence(new IIOImage(frame.image, null, metadata), null);
+      }
+      writer.endWriteSequence();
+    }
+    writer.dispose();
+    return outputStream.toByteArray();
+  }
+
+  private static class Frame {
+
+    private final BufferedImage image;
+    private final int x;
+    private final int y;
+    private final String disposal;
+    private final int delay;
+
+    Frame(BufferedImage image, int x, int y, String disposal, int delay) {
+      this.image = image;
+      this.x = x;
+      this.y = y;
+      this.disposal = disposal;
+      this.delay = delay;
+    }
+  }
+}
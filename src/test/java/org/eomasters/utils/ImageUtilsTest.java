@@ -0,0 +1,104 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ImageUtilsTest {
+
+  @Test
+  void testMultiSizeSvgRenderingMatchesTranscoder() throws Exception {
+    URL resource = ImageUtilsTest.class.getResource("/icons/essentials/Eye.svg");
+    int[] sizes = {16, 24, 32, 48};
+    Image[] images = ImageUtils.loadSvgImages(resource, sizes);
+    assertEquals(sizes.length, images.length);
+    for (int i = 0; i < sizes.length; i++) {
+      BufferedImage expected;
+      try (InputStream inputStream = resource.openStream()) {
+        expected = (BufferedImage) ImageUtils.loadSvgImage(inputStream, sizes[i], sizes[i]);
+      }
+      assertSameImage(expected, (BufferedImage) images[i]);
+      assertSameImage(expected, (BufferedImage) ImageUtils.loadSvgImage(resource, sizes[i], sizes[i]));
+    }
+  }
+
+  @Test
+  void testPooledTranscoderMatchesFreshTranscoder() throws Exception {
+    String[] names = {"Eye", "Bug", "Eye", "Cloud"};
+    int[] sizes = {48, 16, 32, 24};
+    for (int i = 0; i < names.length; i++) {
+      URL resource = ImageUtilsTest.class.getResource("/icons/essentials/" + names[i] + ".svg");
+      BufferedImage expected;
+      try (InputStream inputStream = resource.openStream()) {
+        expected = new ImageUtils.SvgTranscoder().transcode(inputStream, sizes[i], sizes[i]);
+      }
+      try (InputStream inputStream = resource.openStream()) {
+        assertSameImage(expected, (BufferedImage) ImageUtils.loadSvgImage(inputStream, sizes[i], sizes[i]));
+      }
+    }
+  }
+
+  @Test
+  void testNumberedImagesAreLoadedInOrder() {
+    NumberedImages numberedImages = ImageUtils.readNumberedImages(ImageUtilsTest.class,
+        "/icons/additions/Eye_addition_#.png", 16, 48, true);
+    Image[] images = numberedImages.getImages();
+    assertEquals(4, images.length);
+    assertEquals(16, images[0].getWidth(null));
+    assertEquals(24, images[1].getWidth(null));
+    assertEquals(32, images[2].getWidth(null));
+    assertEquals(48, images[3].getWidth(null));
+    assertEquals(33 - 4, numberedImages.getMissingNumbers().size());
+    assertEquals(List.of(17, 18), numberedImages.getMissingNumbers().subList(0, 2));
+
+    BufferedImage spriteSheet = numberedImages.getSpriteSheet();
+    assertEquals(2 * 48, spriteSheet.getWidth());
+    Image[] unpacked = ImageUtils.loadNumberedImages(ImageUtilsTest.class, "/icons/additions/Eye_addition_#.png", 16,
+        48);
+    for (int i = 0; i < images.length; i++) {
+      assertSameImage(toArgb(unpacked[i]), (BufferedImage) images[i]);
+    }
+  }
+
+  private static BufferedImage toArgb(Image image) {
+    BufferedImage argb = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = argb.createGraphics();
+    graphics.setComposite(AlphaComposite.Src);
+    graphics.drawImage(image, 0, 0, null);
+    graphics.dispose();
+    return argb;
+  }
+
+  private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    for (int y = 0; y < expected.getHeight(); y++) {
+      for (int x = 0; x < expected.getWidth(); x++) {
+        assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel " + x + "," + y);
+      }
+    }
+  }
+}
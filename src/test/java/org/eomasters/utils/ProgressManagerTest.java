@@ -18,9 +18,20 @@
 package org.eomasters.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
@@ -215,4 +226,258 @@ class ProgressManagerTest {
     assertTrue(taskIsDone.get());
   }
 
+  @Test
+  void testConcurrentRegistrationAndReporting() throws Exception {
+    final AtomicInteger progressCounter = new AtomicInteger();
+    ProgressListener countingListener = new ProgressListener() {
+      @Override
+      public void onProgressChanged(ProgressTask task) {
+        progressCounter.getAndIncrement();
+      }
+
+      @Override
+      public void onTaskDone(ProgressTask task) {
+      }
+    };
+    ProgressManager.addProgressListener(countingListener);
+
+    int numTasks = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < numTasks; i++) {
+        String taskID = "concurrentTask" + i;
+        futures.add(executor.submit(() -> {
+          ProgressManager.registerTask(taskID, 10);
+          ProgressListener listener = new ProgressListener() {
+            @Override
+            public void onProgressChanged(ProgressTask task) {
+            }
+
+            @Override
+            public void onTaskDone(ProgressTask task) {
+            }
+          };
+          ProgressManager.addProgressListener(listener);
+          for (int j = 0; j < 10; j++) {
+            ProgressManager.worked(taskID, 1);
+          }
+          ProgressManager.removeProgressListener(listener);
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+      ProgressManager.removeProgressListener(countingListener);
+    }
+
+    assertEquals(numTasks * 10, progressCounter.get());
+    for (int i = 0; i < numTasks; i++) {
+      assertEquals(-1, ProgressManager.getProgress("concurrentTask" + i));
+    }
+  }
+
+  @Test
+  void testConcurrentWorkIsNotLostAndDoneIsFiredOnce() throws Exception {
+    int numThreads = 16;
+    int stepsPerThread = 1000;
+    ProgressTask task = ProgressManager.registerTask("parallelTask", numThreads * stepsPerThread * 2);
+    final AtomicInteger doneCounter = new AtomicInteger();
+    ProgressManager.addProgressListener("parallelTask", new ProgressListener() {
+      @Override
+      public void onProgressChanged(ProgressTask task) {
+      }
+
+      @Override
+      public void onTaskDone(ProgressTask task) {
+        doneCounter.getAndIncrement();
+      }
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < numThreads; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < stepsPerThread; j++) {
+            task.worked(1);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      assertEquals(50, task.getProgress());
+      assertFalse(task.isDone());
+
+      futures.clear();
+      for (int i = 0; i < numThreads; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < stepsPerThread; j++) {
+            task.worked(1);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertTrue(task.isDone());
+    assertEquals(100, task.getProgress());
+    assertEquals(1, doneCounter.get());
+  }
+
+  @Test
+  void testThrottledEventDispatch() throws Exception {
+    ProgressTask task = ProgressManager.registerTask("throttledTask", 20000);
+    final List<String> events = new ArrayList<>();
+    ProgressManager.addProgressListener("throttledTask", new ProgressListener() {
+      @Override
+      public void onProgressChanged(ProgressTask task) {
+        events.add("progress " + task.getProgress());
+      }
+
+      @Override
+      public void onTaskDone(ProgressTask task) {
+        events.add("done");
+      }
+    });
+
+    // events are only queued by the executor and run by the test
+    final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    ProgressManager.setEventThrottling(1, queue::add);
+    try {
+      for (int i = 0; i < 10000; i++) {
+        task.worked(1);
+      }
+      Runnable flushed = queue.poll(5, TimeUnit.SECONDS);
+      assertNotNull(flushed);
+      assertTrue(queue.isEmpty(), "progress events must be coalesced");
+      flushed.run();
+      assertEquals(List.of("progress 50"), events);
+
+      for (int i = 0; i < 10000; i++) {
+        task.worked(1);
+      }
+      // the pending progress event is delivered before the done event
+      queue.forEach(Runnable::run);
+      assertEquals(List.of("progress 50", "progress 100", "done"), events);
+    } finally {
+      ProgressManager.disableEventThrottling();
+    }
+  }
+
+  @Test
+  void testQueuedProgressEventIsDeliveredAfterTaskIsDone() throws Exception {
+    ProgressTask task = ProgressManager.registerTask("queuedTask", 10);
+    final List<String> events = new ArrayList<>();
+    ProgressManager.addProgressListener("queuedTask", new ProgressListener() {
+      @Override
+      public void onProgressChanged(ProgressTask task) {
+        events.add("progress");
+      }
+
+      @Override
+      public void onTaskDone(ProgressTask task) {
+        events.add("done");
+      }
+    });
+
+    final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    ProgressManager.setEventThrottling(100, queue::add);
+    try {
+      task.worked(5);
+      Runnable flushed = queue.poll(5, TimeUnit.SECONDS);
+      assertNotNull(flushed);
+      // the task is done and its listeners are deregistered before the queued event is delivered
+      task.done();
+      flushed.run();
+      queue.forEach(Runnable::run);
+      assertEquals(List.of("progress", "done"), events);
+    } finally {
+      ProgressManager.disableEventThrottling();
+    }
+  }
+
+  @Test
+  void testProgressReportingWithSubTaskRegisteredBeforeParent() {
+    ProgressTask subtask = ProgressManager.registerTask("earlySubtask", 4);
+    subtask.worked(2);
+
+    ProgressTask task = ProgressManager.registerTask("lateParent", 10)
+                                       .with("earlySubtask", 4);
+    assertEquals(20, task.getProgress());
+
+    subtask.worked(2);
+    assertTrue(subtask.isDone());
+    assertEquals(40, task.getProgress());
+    assertTrue(task.getSubTasks().isEmpty());
+
+    task.done();
+  }
+
+  @Test
+  void testProgressReportingWithDeepSubTaskTree() {
+    int depth = 50;
+    ProgressTask root = ProgressManager.registerTask("level0", 2).with("level1", 2);
+    for (int i = 1; i < depth; i++) {
+      ProgressManager.registerTask("level" + i, 2).with("level" + (i + 1), 2);
+    }
+    ProgressTask leaf = ProgressManager.registerTask("level" + depth, 2);
+
+    leaf.worked(1);
+    // every level takes the whole work of its parent, so the progress is the same on all levels
+    assertEquals(50, root.getProgress());
+    assertEquals(50, ProgressManager.getProgress("level" + (depth / 2)));
+
+    root.done();
+    assertEquals(-1, ProgressManager.getProgress("level1"));
+  }
+
+  @Test
+  void testCancellationCascadesToSubTasks() {
+    ProgressTask task = ProgressManager.registerTask("cancelledTask", 10)
+                                       .with("cancelledSubtask", 5);
+    ProgressTask subtask = ProgressManager.registerTask("cancelledSubtask", 10);
+    subtask.worked(5);
+    assertEquals(25, task.getProgress());
+
+    AtomicInteger handlerCalls = new AtomicInteger();
+    subtask.whenCancelled(handlerCalls::getAndIncrement);
+    task.cancel();
+    task.cancel();
+
+    assertTrue(task.isCancelled());
+    assertTrue(task.isDone());
+    assertTrue(subtask.isCancelled());
+    assertTrue(subtask.isDone());
+    assertEquals(1, handlerCalls.get());
+    assertEquals(25, task.getProgress());
+    assertEquals(50, subtask.getProgress());
+    assertThrows(CancellationException.class, subtask::checkCancelled);
+
+    // handlers registered after the cancellation are called immediately
+    subtask.whenCancelled(handlerCalls::getAndIncrement);
+    assertEquals(2, handlerCalls.get());
+  }
+
+  @Test
+  void testCancelledSubTaskDoesNotCompleteParent() {
+    ProgressTask task = ProgressManager.registerTask("parentOfCancelled", 10)
+                                       .with("cancelledChild", 5);
+    ProgressTask subtask = ProgressManager.registerTask("cancelledChild", 10);
+    subtask.worked(2);
+    subtask.cancel();
+    subtask.worked(8);
+
+    assertFalse(task.isCancelled());
+    assertEquals(10, task.getProgress());
+    task.done();
+  }
+
 }
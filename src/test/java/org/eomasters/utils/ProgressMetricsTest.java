@@ -0,0 +1,99 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.jupiter.api.Test;
+
+class ProgressMetricsTest {
+
+  @Test
+  void testMetricsOfRunningAndFinishedTasks() throws Exception {
+    ProgressMetrics.reset();
+    ProgressMetrics.enable();
+    try {
+      ProgressTask task = ProgressManager.registerTask("metricsTask", 10);
+      task.worked(2);
+      Thread.sleep(150);
+      task.worked(3);
+
+      TaskMetrics running = ProgressMetrics.getSnapshot("metricsTask");
+      assertNotNull(running);
+      assertEquals(50, running.getProgress());
+      assertEquals(5.0, running.getWorked(), 1.0e-6);
+      assertEquals(-1, running.getEndTime());
+      assertTrue(running.getStepsPerSecond() > 0);
+      assertTrue(running.getEtaMillis() > 0);
+      assertEquals(1, ProgressMetrics.getRunningTasks().length);
+
+      task.worked(5);
+      TaskMetrics finished = ProgressMetrics.getSnapshot("metricsTask");
+      assertEquals(100, finished.getProgress());
+      assertEquals(0, finished.getEtaMillis());
+      assertTrue(finished.getEndTime() >= finished.getStartTime());
+      assertTrue(finished.getDurationMillis() >= 150);
+      assertEquals(0, ProgressMetrics.getRunningTasks().length);
+
+      DurationHistogram histogram = ProgressMetrics.getDurationHistogram("metricsTask");
+      assertEquals(1, histogram.getCount());
+      assertEquals(finished.getDurationMillis(), histogram.getMinMillis());
+      // 150 ms and more are counted in the bucket (128, 256] ms or above
+      long[] counts = histogram.getBucketCounts();
+      long[] upperBounds = histogram.getBucketUpperBoundsMillis();
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] > 0) {
+          assertTrue(upperBounds[i] >= finished.getDurationMillis());
+          assertTrue(i == 0 || upperBounds[i - 1] < finished.getDurationMillis());
+        }
+      }
+    } finally {
+      ProgressMetrics.disable();
+    }
+  }
+
+  @Test
+  void testMetricsAreExposedViaJmx() throws Exception {
+    ProgressMetrics.reset();
+    ProgressMetrics.enable();
+    try {
+      ProgressManager.registerTask("jmxTask", 1).worked(1);
+
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(ProgressMetrics.OBJECT_NAME);
+      CompositeData[] finished = (CompositeData[]) server.getAttribute(name, "FinishedTasks");
+      assertEquals(1, finished.length);
+      assertEquals("jmxTask", finished[0].get("taskID"));
+      CompositeData[] histograms = (CompositeData[]) server.getAttribute(name, "DurationHistograms");
+      assertEquals(1L, histograms[0].get("count"));
+
+      server.invoke(name, "reset", null, null);
+      assertNull(ProgressMetrics.getSnapshot("jmxTask"));
+    } finally {
+      ProgressMetrics.disable();
+    }
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(ProgressMetrics.OBJECT_NAME)));
+  }
+}
@@ -0,0 +1,192 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class ProgressTaskRunnerTest {
+
+  @Test
+  void testRunTreeOfSubTasks() throws Exception {
+    ProgressTask task = ProgressManager.registerTask("runnerTask", 10);
+    AtomicInteger virtualThreads = new AtomicInteger();
+    ProgressTaskRunner.run(task, scope -> {
+      for (int i = 0; i < 5; i++) {
+        String subTaskID = "runnerTask.sub" + i;
+        scope.fork(subTaskID, 2, 2, sub -> {
+          sub.fork(subTaskID + ".a", 1, 100, subSub -> {
+            if (Thread.currentThread().isVirtual()) {
+              virtualThreads.getAndIncrement();
+            }
+            for (int j = 0; j < 100; j++) {
+              subSub.getTask().worked(1);
+            }
+          });
+          sub.getTask().worked(1);
+        });
+      }
+    });
+
+    assertTrue(task.isDone());
+    assertEquals(100, task.getProgress());
+    assertEquals(5, virtualThreads.get());
+    assertTrue(task.getSubTasks().isEmpty());
+    assertEquals(-1, ProgressManager.getProgress("runnerTask.sub0"));
+    assertEquals(-1, ProgressManager.getProgress("runnerTask.sub0.a"));
+  }
+
+  @Test
+  void testFailureCancelsSiblings() {
+    ProgressTask task = ProgressManager.registerTask("failingTask", 2);
+    IllegalStateException failure = new IllegalStateException("failed");
+    AtomicBoolean siblingInterrupted = new AtomicBoolean();
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> ProgressTaskRunner.run(task, scope -> {
+      scope.fork("failingTask.slow", 1, 1, sub -> {
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          siblingInterrupted.set(true);
+          throw e;
+        }
+      });
+      scope.fork("failingTask.failing", 1, 1, sub -> {
+        throw failure;
+      });
+    }));
+
+    assertSame(failure, exception.getCause());
+    assertTrue(siblingInterrupted.get());
+    assertTrue(task.isDone());
+  }
+
+  @Test
+  void testFailedSubTaskCreditsOnlyItsWork() {
+    ProgressTask task = ProgressManager.registerTask("partlyFailingTask", 10);
+    ProgressTask[] subTask = new ProgressTask[1];
+    assertThrows(ExecutionException.class, () -> ProgressTaskRunner.run(task, scope -> {
+      scope.getTask().worked(2);
+      subTask[0] = scope.fork("partlyFailingTask.sub", 6, 10, sub -> {
+        sub.getTask().worked(5);
+        throw new IllegalStateException("failed");
+      });
+    }));
+
+    // 2 steps of the task itself and half of the 6 steps of the sub-task
+    assertEquals(50, task.getProgress());
+    assertTrue(task.isDone());
+    assertTrue(task.isFailed());
+    assertTrue(subTask[0].isFailed());
+    assertEquals(50, subTask[0].getProgress());
+  }
+
+  @Test
+  void testForkAfterFailureDoesNotHang() throws Exception {
+    ProgressTask task = ProgressManager.registerTask("forkAfterFailure", 2);
+    IllegalStateException failure = new IllegalStateException("failed");
+    Throwable thrown = runWithTimeout(task, scope -> {
+      scope.fork("forkAfterFailure.failing", 1, 1, sub -> {
+        throw failure;
+      });
+      Thread.sleep(20);
+      // the sibling has failed already, so this fork is cancelled right after it has been submitted
+      scope.fork("forkAfterFailure.late", 1, 1, sub -> sub.getTask().worked(1));
+    });
+
+    assertTrue(thrown instanceof ExecutionException);
+    assertSame(failure, thrown.getCause());
+  }
+
+  @Test
+  void testCancellationWhileForkingDoesNotHang() throws Exception {
+    ProgressTask task = ProgressManager.registerTask("cancelWhileForking", 200);
+    CountDownLatch forking = new CountDownLatch(1);
+    Thread canceller = Thread.ofVirtual().start(() -> {
+      try {
+        forking.await();
+        task.cancel();
+      } catch (InterruptedException ignored) {
+      }
+    });
+    Throwable thrown = runWithTimeout(task, scope -> {
+      for (int i = 0; i < 200; i++) {
+        scope.fork("cancelWhileForking.sub" + i, 1, 1, sub -> Thread.sleep(10));
+        forking.countDown();
+      }
+    });
+    canceller.join();
+
+    assertTrue(thrown instanceof CancellationException);
+    assertTrue(task.isCancelled());
+  }
+
+  @Test
+  void testCancellationInterruptsSubTasks() throws Exception {
+    ProgressTask task = ProgressManager.registerTask("cancelledRun", 2);
+    CountDownLatch started = new CountDownLatch(2);
+    AtomicInteger interrupted = new AtomicInteger();
+    Thread canceller = Thread.ofVirtual().start(() -> {
+      try {
+        started.await();
+        task.cancel();
+      } catch (InterruptedException ignored) {
+      }
+    });
+    assertThrows(CancellationException.class, () -> ProgressTaskRunner.run(task, scope -> {
+      for (int i = 0; i < 2; i++) {
+        scope.fork("cancelledRun.sub" + i, 1, 1, sub -> {
+          started.countDown();
+          try {
+            Thread.sleep(10_000);
+          } catch (InterruptedException e) {
+            interrupted.getAndIncrement();
+            throw e;
+          }
+        });
+      }
+    }));
+    canceller.join();
+
+    assertEquals(2, interrupted.get());
+    assertTrue(task.isCancelled());
+  }
+
+  private static Throwable runWithTimeout(ProgressTask task, ProgressTaskRunner.Work work) throws Exception {
+    AtomicReference<Throwable> thrown = new AtomicReference<>();
+    Thread runner = Thread.ofVirtual().start(() -> {
+      try {
+        ProgressTaskRunner.run(task, work);
+      } catch (Throwable t) {
+        thrown.set(t);
+      }
+    });
+    runner.join(10_000);
+    assertFalse(runner.isAlive(), "the run must not hang");
+    return thrown.get();
+  }
+}
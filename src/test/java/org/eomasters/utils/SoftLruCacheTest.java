@@ -0,0 +1,58 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class SoftLruCacheTest {
+
+  @Test
+  void testLeastRecentlyUsedEntriesAreEvicted() {
+    SoftLruCache<String, String> cache = new SoftLruCache<>(2);
+    cache.putIfAbsent("a", "A");
+    cache.putIfAbsent("b", "B");
+    assertEquals("A", cache.get("a"));
+    cache.putIfAbsent("c", "C");
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertEquals("A", cache.get("a"));
+    assertEquals("C", cache.get("c"));
+
+    cache.setMaximumSize(1);
+    assertEquals(1, cache.size());
+    assertEquals("C", cache.get("c"));
+    assertThrows(IllegalArgumentException.class, () -> cache.setMaximumSize(0));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testPutIfAbsentKeepsExistingValue() {
+    SoftLruCache<String, String> cache = new SoftLruCache<>(4);
+    String first = new String("value");
+    assertSame(first, cache.putIfAbsent("key", first));
+    assertSame(first, cache.putIfAbsent("key", new String("value")));
+    assertSame(first, cache.get("key"));
+  }
+}
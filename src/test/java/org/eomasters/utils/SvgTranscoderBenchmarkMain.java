@@ -0,0 +1,79 @@
+/*-
+ * ========================LICENSE_START=================================
+ * EOM Commons - Library of common utilities for Java
+ * -> https://www.eomasters.org/
+ * ======================================================================
+ * Copyright (C) 2023 - 2025 Marco Peters
+ * ======================================================================
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * =========================LICENSE_END==================================
+ */
+package org.eomasters.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares the throughput of the pooled SVG transcoders used by {@link ImageUtils#loadSvgImage(InputStream, int, int)}
+ * with creating a new transcoder for each image.
+ */
+public class SvgTranscoderBenchmarkMain {
+
+  private static final int ITERATIONS = 2000;
+  private static final int[] SIZES = {16, 24, 32, 48};
+
+  public static void main(String[] args) throws Exception {
+    byte[] svg;
+    try (InputStream inputStream = SvgTranscoderBenchmarkMain.class.getResourceAsStream(
+        "/icons/essentials/Eye.svg")) {
+      svg = inputStream.readAllBytes();
+    }
+    int threads = Runtime.getRuntime().availableProcessors();
+    for (int round = 0; round < 3; round++) {
+      System.out.println("Round " + (round + 1));
+      measure("per call transcoder", threads, size -> new ImageUtils.SvgTranscoder().transcode(
+          new ByteArrayInputStream(svg), size, size));
+      measure("pooled transcoder", threads, size -> ImageUtils.loadSvgImage(new ByteArrayInputStream(svg), size, size));
+    }
+  }
+
+  private static void measure(String name, int threads, Rendering rendering) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      long start = System.nanoTime();
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < ITERATIONS / threads; i++) {
+            rendering.render(SIZES[i % SIZES.length]);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("  %-20s %8.0f images/s (%d threads)%n", name, ITERATIONS / seconds, threads);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private interface Rendering {
+
+    void render(int size) throws IOException;
+  }
+}